@@ -104,8 +104,11 @@ run_app() {
 
   "${mvn_cmd}" -B clean package -DskipTests
 
+  # JDK HTTP client pool settings are JVM-wide and only read when its classes load, so they go on the command line.
+  local http_opts="${ONYX_HTTP_JVM_OPTS:--Djdk.httpclient.connectionPoolSize=64 -Djdk.httpclient.keepalive.timeout=60}"
+
   "${mvn_cmd}" spring-boot:run \
-    -Dspring-boot.run.jvmArguments='-agentlib:jdwp=transport=dt_socket,server=y,suspend=n,address=*:5005 --add-opens=java.base/java.time=ALL-UNNAMED --add-opens=java.base/java.lang=ALL-UNNAMED'
+    -Dspring-boot.run.jvmArguments="-agentlib:jdwp=transport=dt_socket,server=y,suspend=n,address=*:5005 --add-opens=java.base/java.time=ALL-UNNAMED --add-opens=java.base/java.lang=ALL-UNNAMED ${http_opts}"
 }
 
 ensure_java
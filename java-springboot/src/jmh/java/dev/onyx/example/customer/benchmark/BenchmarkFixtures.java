@@ -0,0 +1,72 @@
+package dev.onyx.example.customer.benchmark;
+
+import dev.onyx.example.customer.config.OnyxProperties;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.dto.ProfilePicRequest;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.model.ProfilePic;
+import dev.onyx.example.customer.service.CustomerCache;
+import dev.onyx.example.customer.service.CustomerService;
+import dev.onyx.example.customer.store.CustomerStore;
+import dev.onyx.example.customer.store.InMemoryCustomerStore;
+import jakarta.validation.Validation;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public final class BenchmarkFixtures {
+
+    public static final String PARTITION = "UK";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static CustomerRequest request() {
+        CustomerRequest request = new CustomerRequest();
+        request.setFirstName("Ada");
+        request.setLastName("Lovelace");
+        request.setEmail("ada@example.com");
+        request.setAge(36);
+        request.setIsActive(true);
+        request.setBalance(123.45f);
+        request.setCountryCode(PARTITION);
+        request.setProfilePic(new ProfilePicRequest("https://example.com/ada.png", "image/png", 20_480L));
+        return request;
+    }
+
+    public static Customer customer() {
+        return new Customer(
+                UUID.randomUUID().toString(),
+                "Ada",
+                "Lovelace",
+                "ada@example.com",
+                36,
+                Instant.now().toString(),
+                true,
+                123.45f,
+                new ProfilePic("https://example.com/ada.png", "image/png", 20_480L),
+                PARTITION
+        );
+    }
+
+    public static CustomerStore store() {
+        return new InMemoryCustomerStore(0, 0, 0);
+    }
+
+    public static OnyxProperties properties(boolean cacheEnabled) {
+        OnyxProperties properties = new OnyxProperties();
+        properties.setPartition(PARTITION);
+        properties.getCache().setEnabled(cacheEnabled);
+        return properties;
+    }
+
+    public static CustomerService service(CustomerStore store, boolean cacheEnabled) {
+        OnyxProperties properties = properties(cacheEnabled);
+        OnyxProperties.Cache cache = properties.getCache();
+        return new CustomerService(
+                store,
+                properties,
+                new CustomerCache(cache.isEnabled(), cache.getMaxSize(), cache.getTtlMs()),
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+}
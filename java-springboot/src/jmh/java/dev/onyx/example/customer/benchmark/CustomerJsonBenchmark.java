@@ -0,0 +1,74 @@
+package dev.onyx.example.customer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.json.CustomerJsonModule;
+import dev.onyx.example.customer.model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective bean binding versus the streaming {@code CustomerJsonModule}; run with {@code -prof gc} (the profile
+ * default) to compare bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerJsonBenchmark {
+
+    @Param({"reflective", "streaming"})
+    public String binding;
+
+    private ObjectWriter customerWriter;
+    private ObjectReader customerReader;
+    private ObjectReader requestReader;
+    private Customer customer;
+    private byte[] customerJson;
+    private byte[] requestJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        if ("streaming".equals(binding)) {
+            mapper.registerModule(new CustomerJsonModule());
+        }
+        customerWriter = mapper.writerFor(Customer.class);
+        customerReader = mapper.readerFor(Customer.class);
+        requestReader = mapper.readerFor(CustomerRequest.class);
+        customer = BenchmarkFixtures.customer();
+        customerJson = customerWriter.writeValueAsBytes(customer);
+        requestJson = mapper.writeValueAsBytes(BenchmarkFixtures.request());
+    }
+
+    @Benchmark
+    public byte[] serializeCustomer() throws IOException {
+        return customerWriter.writeValueAsBytes(customer);
+    }
+
+    @Benchmark
+    public Customer deserializeCustomer() throws IOException {
+        return customerReader.readValue(customerJson);
+    }
+
+    @Benchmark
+    public CustomerRequest deserializeCustomerRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+}
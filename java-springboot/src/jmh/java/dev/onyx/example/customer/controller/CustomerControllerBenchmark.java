@@ -0,0 +1,86 @@
+package dev.onyx.example.customer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.onyx.example.customer.benchmark.BenchmarkFixtures;
+import dev.onyx.example.customer.dto.CustomerFilter;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.service.CrossPartitionQueryService;
+import dev.onyx.example.customer.service.CustomerService;
+import dev.onyx.example.customer.service.CustomerServiceAsync;
+import dev.onyx.example.customer.store.CustomerStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end controller calls against an in-memory store, with and without the read-through cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerControllerBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private CustomerController controller;
+    private CustomerRequest request;
+    private String existingId;
+
+    // Per iteration, because create() keeps adding customers and would otherwise grow the store for the whole run.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        CustomerStore store = BenchmarkFixtures.store();
+        CustomerService service = BenchmarkFixtures.service(store, cacheEnabled);
+        CrossPartitionQueryService crossPartition = new CrossPartitionQueryService(
+                service, store, BenchmarkFixtures.properties(cacheEnabled), Runnable::run);
+        WireFormats wireFormats = new WireFormats(new ObjectMapper(new SmileFactory()), new ObjectMapper(new CBORFactory()));
+        // A direct executor keeps the measured time on the benchmark thread instead of a hand-off to a pool.
+        CustomerServiceAsync serviceAsync = new CustomerServiceAsync(service, Runnable::run);
+        controller = new CustomerController(service, serviceAsync, crossPartition, new ObjectMapper(), wireFormats);
+        request = BenchmarkFixtures.request();
+        for (int i = 0; i < 1_000; i++) {
+            store.save(BenchmarkFixtures.customer());
+        }
+        existingId = controller.create(request).join().getBody().getCustomerId();
+    }
+
+    @Benchmark
+    public ResponseEntity<Customer> create() {
+        return controller.create(request).join();
+    }
+
+    @Benchmark
+    public ResponseEntity<Customer> getById() {
+        return controller.getById(existingId, BenchmarkFixtures.PARTITION).join();
+    }
+
+    @Benchmark
+    public ResponseEntity<Customer> update() {
+        return controller.update(existingId, request, BenchmarkFixtures.PARTITION).join();
+    }
+
+    @Benchmark
+    public ResponseEntity<List<Customer>> listPage() {
+        return controller.list(BenchmarkFixtures.PARTITION, 50, null, new CustomerFilter());
+    }
+}
@@ -0,0 +1,59 @@
+package dev.onyx.example.customer.service;
+
+import dev.onyx.example.customer.benchmark.BenchmarkFixtures;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.model.ProfilePic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-to-entity mapping inside {@link CustomerService}; lives in the service package to reach the package-private helpers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerMappingBenchmark {
+
+    private CustomerService service;
+    private CustomerRequest request;
+
+    @Setup
+    public void setUp() {
+        service = BenchmarkFixtures.service(BenchmarkFixtures.store(), true);
+        request = BenchmarkFixtures.request();
+    }
+
+    @Benchmark
+    public Customer toCustomer() {
+        return service.toCustomer("customer-1", "2024-01-01T00:00:00Z", request);
+    }
+
+    @Benchmark
+    public ProfilePic toProfilePic() {
+        return service.toProfilePic(request.getProfilePic());
+    }
+
+    @Benchmark
+    public String resolvePartitionProvided() {
+        return service.resolvePartition("US", request.getCountryCode());
+    }
+
+    @Benchmark
+    public String resolvePartitionDefault() {
+        return service.resolvePartition(null, null);
+    }
+}
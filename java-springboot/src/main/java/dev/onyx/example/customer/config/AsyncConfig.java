@@ -0,0 +1,33 @@
+package dev.onyx.example.customer.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    public static final String CUSTOMER_EXECUTOR = "customerExecutor";
+
+    @Bean(name = CUSTOMER_EXECUTOR)
+    public AsyncTaskExecutor customerExecutor(OnyxProperties properties) {
+        OnyxProperties.Async async = properties.getAsync();
+        if (async.isVirtualThreads()) {
+            // Onyx calls are already capped by onyx.concurrency, so a thread per task is cheap and safe here.
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("customer-async-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("customer-async-");
+        executor.setCorePoolSize(async.getPoolSize());
+        executor.setMaxPoolSize(async.getPoolSize());
+        executor.setQueueCapacity(async.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,38 @@
+package dev.onyx.example.customer.config;
+
+import dev.onyx.example.customer.service.CustomerCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CustomerCacheConfig {
+
+    @Bean
+    public CustomerCache customerCache(OnyxProperties properties) {
+        OnyxProperties.Cache cache = properties.getCache();
+        return new CustomerCache(cache.isEnabled(), cache.getMaxSize(), cache.getTtlMs(), cache.getStaleIfErrorMs());
+    }
+
+    @Bean
+    public MeterBinder customerCacheMetrics(CustomerCache cache) {
+        return registry -> {
+            FunctionCounter.builder("customer.cache.hits", cache, CustomerCache::getHitCount)
+                    .description("Customer lookups served from the in-process cache")
+                    .register(registry);
+            FunctionCounter.builder("customer.cache.misses", cache, CustomerCache::getMissCount)
+                    .description("Customer lookups that went to Onyx")
+                    .register(registry);
+            FunctionCounter.builder("customer.cache.evictions", cache, CustomerCache::getEvictionCount)
+                    .description("Entries dropped because of size or TTL")
+                    .register(registry);
+            FunctionCounter.builder("customer.cache.stale-hits", cache, CustomerCache::getStaleHitCount)
+                    .description("Expired customers served because Onyx was unavailable")
+                    .register(registry);
+            Gauge.builder("customer.cache.size", cache, CustomerCache::size)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,292 @@
+package dev.onyx.example.customer.config;
+
+import com.onyx.cloud.impl.OnyxClient;
+import dev.onyx.example.customer.store.CircuitBreakingCustomerStore;
+import dev.onyx.example.customer.store.ConcurrencyLimitedCustomerStore;
+import dev.onyx.example.customer.store.CustomerStore;
+import dev.onyx.example.customer.store.DiskCachedCustomerStore;
+import dev.onyx.example.customer.store.InMemoryCustomerStore;
+import dev.onyx.example.customer.store.InstrumentedCustomerStore;
+import dev.onyx.example.customer.store.KnownPartitions;
+import dev.onyx.example.customer.store.OnyxCustomerStore;
+import dev.onyx.example.customer.store.ReplicatedCustomerStore;
+import dev.onyx.example.customer.store.ResilientCustomerStore;
+import dev.onyx.example.customer.store.SingleFlightCustomerStore;
+import dev.onyx.example.customer.store.WriteBehindCustomerStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class CustomerStoreConfig {
+
+    @Bean
+    public CustomerStore customerStore(ObjectProvider<OnyxClient> onyxClient,
+                                       OnyxProperties properties,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        CustomerStore store = baseStore(onyxClient, properties);
+        KnownPartitions knownPartitions = knownPartitions(properties);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            store = new InstrumentedCustomerStore(store, registry, knownPartitions);
+        }
+
+        OnyxProperties.Concurrency concurrency = properties.getConcurrency();
+        if (concurrency.getMaxInFlight() > 0) {
+            ConcurrencyLimitedCustomerStore limited = new ConcurrencyLimitedCustomerStore(store,
+                    new ConcurrencyLimitedCustomerStore.Policy(
+                            concurrency.getMinInFlight(),
+                            concurrency.getMaxInFlight(),
+                            concurrency.getAcquireTimeoutMs(),
+                            concurrency.isAdaptive(),
+                            concurrency.getBackoffRatio(),
+                            concurrency.getSlowCallMs()));
+            if (registry != null) {
+                Gauge.builder("onyx.calls.in-flight", limited, ConcurrencyLimitedCustomerStore::getInFlight)
+                        .register(registry);
+                Gauge.builder("onyx.calls.queued", limited, ConcurrencyLimitedCustomerStore::getQueued)
+                        .register(registry);
+                Gauge.builder("onyx.calls.limit", limited, ConcurrencyLimitedCustomerStore::getLimit)
+                        .register(registry);
+                FunctionCounter.builder("onyx.calls.rejected", limited, ConcurrencyLimitedCustomerStore::getRejectedCount)
+                        .description("Calls turned away because no slot freed up in time")
+                        .register(registry);
+            }
+            store = limited;
+        }
+
+        OnyxProperties.Resilience resilience = properties.getResilience();
+        if (resilience.isEnabled()) {
+            // Outside the limiter so every retry and hedge has to take its own permit.
+            ResilientCustomerStore resilient = new ResilientCustomerStore(store, resiliencePolicy(properties));
+            if (registry != null) {
+                bindResilienceMetrics(resilient, registry);
+            }
+            store = resilient;
+        }
+
+        OnyxProperties.CircuitBreaker circuitBreaker = properties.getCircuitBreaker();
+        if (circuitBreaker.isEnabled()) {
+            // Outside the retries so a circuit sees one outcome per read, and rejections never reach the limiter.
+            CircuitBreakingCustomerStore breaking = new CircuitBreakingCustomerStore(store,
+                    new CircuitBreakingCustomerStore.Policy(
+                            circuitBreaker.getWindowSize(),
+                            circuitBreaker.getMinCalls(),
+                            circuitBreaker.getFailureRateThreshold(),
+                            circuitBreaker.getOpenMs(),
+                            circuitBreaker.getHalfOpenProbes()),
+                    knownPartitions);
+            if (registry != null) {
+                Gauge.builder("onyx.circuits.open", breaking, CircuitBreakingCustomerStore::getOpenCount)
+                        .description("Operation and partition circuits currently open or half-open")
+                        .register(registry);
+                FunctionCounter.builder("onyx.circuits.opened", breaking, CircuitBreakingCustomerStore::getOpenedCount)
+                        .register(registry);
+                FunctionCounter.builder("onyx.circuits.rejected", breaking, CircuitBreakingCustomerStore::getRejectedCount)
+                        .description("Calls failed fast because their circuit was open")
+                        .register(registry);
+            }
+            store = breaking;
+        }
+
+        if (properties.isSingleFlightEnabled()) {
+            SingleFlightCustomerStore singleFlight = new SingleFlightCustomerStore(store);
+            if (registry != null) {
+                FunctionCounter.builder("onyx.calls.coalesced", singleFlight, SingleFlightCustomerStore::getCoalescedCount)
+                        .description("Lookups that shared an in-flight findById instead of calling Onyx")
+                        .register(registry);
+            }
+            store = singleFlight;
+        }
+
+        OnyxProperties.WriteBehind writeBehind = properties.getWriteBehind();
+        if (writeBehind.isEnabled()) {
+            WriteBehindCustomerStore buffered = new WriteBehindCustomerStore(
+                    store,
+                    writeBehind.getMaxBatchSize(),
+                    writeBehind.getMaxBufferedCustomers(),
+                    writeBehind.getFlushIntervalMs(),
+                    writeBehind.getFailurePolicy(),
+                    writeBehind.getMaxAttempts(),
+                    writeBehind.isFlushOnShutdown());
+            if (registry != null) {
+                Gauge.builder("customer.write-behind.buffered", buffered, WriteBehindCustomerStore::getBuffered)
+                        .register(registry);
+                FunctionCounter.builder("customer.write-behind.coalesced", buffered, WriteBehindCustomerStore::getCoalescedCount)
+                        .description("Saves replaced by a later save of the same customer before being written")
+                        .register(registry);
+                FunctionCounter.builder("customer.write-behind.written", buffered, WriteBehindCustomerStore::getWrittenCount)
+                        .register(registry);
+                FunctionCounter.builder("customer.write-behind.dropped", buffered, WriteBehindCustomerStore::getDroppedCount)
+                        .register(registry);
+            }
+            store = buffered;
+        }
+
+        OnyxProperties.DiskCache diskCache = properties.getDiskCache();
+        if (diskCache.isEnabled()) {
+            DiskCachedCustomerStore cached = new DiskCachedCustomerStore(
+                    store,
+                    Path.of(diskCache.getDirectory(), "customers.log"),
+                    diskCache.getMaxSizeMb() * 1024L * 1024L,
+                    diskCache.getTtlMs());
+            if (registry != null) {
+                bindDiskCacheMetrics(cached, registry);
+            }
+            store = cached;
+        }
+
+        OnyxProperties.Replica replica = properties.getReplica();
+        if (replica.isEnabled()) {
+            // Outermost, so it sees every write this instance makes, including ones still buffered behind it.
+            List<String> partitions = replica.getPartitions().isEmpty() ? store.partitions() : replica.getPartitions();
+            ReplicatedCustomerStore replicated = new ReplicatedCustomerStore(
+                    store,
+                    partitions,
+                    replica.getRefreshIntervalMs(),
+                    replica.getMaxStalenessMs(),
+                    replica.getScanPageSize(),
+                    replica.getRefreshThreads());
+            if (registry != null) {
+                bindReplicaMetrics(replicated, registry);
+            }
+            store = replicated;
+        }
+        return store;
+    }
+
+    /**
+     * Context close events fire before any bean is destroyed, so buffered writes are flushed while the
+     * {@code OnyxClient} bean has not yet been closed. Closeable decorators close what they wrap.
+     */
+    @Bean
+    public ApplicationListener<ContextClosedEvent> customerStoreShutdown(CustomerStore customerStore) {
+        return event -> {
+            if (customerStore instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    throw new IllegalStateException("Failed to close the customer store", ex);
+                }
+            }
+        };
+    }
+
+    // Partitions this instance is configured to serve are never folded into "other".
+    private KnownPartitions knownPartitions(OnyxProperties properties) {
+        List<String> configured = new ArrayList<>(properties.getKnownPartitions());
+        configured.addAll(properties.getReplica().getPartitions());
+        if (properties.getPartition() != null) {
+            configured.add(properties.getPartition());
+        }
+        return new KnownPartitions(configured, properties.getMaxTrackedPartitions());
+    }
+
+    private ResilientCustomerStore.Policy resiliencePolicy(OnyxProperties properties) {
+        OnyxProperties.Resilience resilience = properties.getResilience();
+        long maxTimeoutMs = resilience.getMaxTimeoutMs() > 0 ? resilience.getMaxTimeoutMs()
+                : properties.getRequestTimeoutMs() != null ? properties.getRequestTimeoutMs() : 10_000;
+        return new ResilientCustomerStore.Policy(
+                resilience.getWindowSize(),
+                resilience.getMinSamples(),
+                resilience.getTimeoutPercentile(),
+                resilience.getTimeoutMultiplier(),
+                resilience.getMinTimeoutMs(),
+                maxTimeoutMs,
+                resilience.getMaxAttempts(),
+                resilience.getBackoffBaseMs(),
+                resilience.getBackoffMaxMs(),
+                resilience.getRetryBudgetRatio(),
+                resilience.getRetryBudgetMax(),
+                resilience.isHedgingEnabled(),
+                resilience.getHedgePercentile(),
+                resilience.getHedgeMinDelayMs());
+    }
+
+    private void bindResilienceMetrics(ResilientCustomerStore resilient, MeterRegistry registry) {
+        FunctionCounter.builder("onyx.reads.retries", resilient, ResilientCustomerStore::getRetryCount)
+                .description("Reads retried after a failure or timeout")
+                .register(registry);
+        FunctionCounter.builder("onyx.reads.timeouts", resilient, ResilientCustomerStore::getTimeoutCount)
+                .register(registry);
+        FunctionCounter.builder("onyx.reads.retry-budget-exhausted", resilient, ResilientCustomerStore::getBudgetExhaustedCount)
+                .description("Retries or hedges skipped because the retry budget was empty")
+                .register(registry);
+        FunctionCounter.builder("onyx.reads.hedges", resilient, ResilientCustomerStore::getHedgeCount)
+                .register(registry);
+        FunctionCounter.builder("onyx.reads.hedges.won", resilient, ResilientCustomerStore::getHedgeWinCount)
+                .description("Hedged reads that answered before the original")
+                .register(registry);
+        Gauge.builder("onyx.reads.abandoned", resilient, ResilientCustomerStore::getAbandonedCount)
+                .description("Timed-out or out-raced reads whose calls are still running and holding their retry tokens")
+                .register(registry);
+        Map<String, List<String>> sizeBuckets = Map.of(
+                "findById", List.of("1"),
+                "findByIds", ResilientCustomerStore.SIZE_BUCKETS,
+                "query", ResilientCustomerStore.SIZE_BUCKETS,
+                "aggregate", List.of(ResilientCustomerStore.SIZE_BUCKETS.get(ResilientCustomerStore.SIZE_BUCKETS.size() - 1)));
+        sizeBuckets.forEach((operation, buckets) -> buckets.forEach(size ->
+                Gauge.builder("onyx.reads.timeout", resilient, store -> store.getTimeoutMs(operation, size))
+                        .tag("operation", operation)
+                        .tag("size", size)
+                        .baseUnit("milliseconds")
+                        .register(registry)));
+    }
+
+    private void bindDiskCacheMetrics(DiskCachedCustomerStore cached, MeterRegistry registry) {
+        FunctionCounter.builder("customer.disk-cache.hits", cached, DiskCachedCustomerStore::getHitCount)
+                .description("Customer lookups served from the disk cache")
+                .register(registry);
+        FunctionCounter.builder("customer.disk-cache.misses", cached, DiskCachedCustomerStore::getMissCount)
+                .register(registry);
+        FunctionCounter.builder("customer.disk-cache.errors", cached, DiskCachedCustomerStore::getErrorCount)
+                .description("Disk cache reads or writes that failed and were skipped")
+                .register(registry);
+        FunctionCounter.builder("customer.disk-cache.compactions", cached, DiskCachedCustomerStore::getCompactionCount)
+                .register(registry);
+        Gauge.builder("customer.disk-cache.size", cached, DiskCachedCustomerStore::getSize)
+                .register(registry);
+        Gauge.builder("customer.disk-cache.used", cached, DiskCachedCustomerStore::getUsedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void bindReplicaMetrics(ReplicatedCustomerStore replicated, MeterRegistry registry) {
+        for (String partition : replicated.getPartitions()) {
+            Gauge.builder("customer.replica.lag", replicated, store -> store.getLagMs(partition))
+                    .description("Age of the partition's local copy, measured from the start of the scan that built it")
+                    .tag("partition", partition)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("customer.replica.size", replicated, store -> store.getSize(partition))
+                    .tag("partition", partition)
+                    .register(registry);
+        }
+        FunctionCounter.builder("customer.replica.reads.local", replicated, ReplicatedCustomerStore::getLocalReadCount)
+                .description("Reads answered from a local partition copy")
+                .register(registry);
+        FunctionCounter.builder("customer.replica.reads.bypassed", replicated, ReplicatedCustomerStore::getBypassedReadCount)
+                .description("Reads of a replicated partition sent to Onyx because its copy was missing or too stale")
+                .register(registry);
+        FunctionCounter.builder("customer.replica.refresh.failures", replicated, ReplicatedCustomerStore::getRefreshFailureCount)
+                .register(registry);
+    }
+
+    private CustomerStore baseStore(ObjectProvider<OnyxClient> onyxClient, OnyxProperties properties) {
+        if (properties.getMode() == OnyxProperties.Mode.IN_MEMORY) {
+            OnyxProperties.InMemory inMemory = properties.getInMemory();
+            return new InMemoryCustomerStore(inMemory.getLatencyMs(), inMemory.getLatencyJitterMs(), inMemory.getErrorRate());
+        }
+        return new OnyxCustomerStore(onyxClient.getObject());
+    }
+}
@@ -0,0 +1,21 @@
+package dev.onyx.example.customer.config;
+
+import com.fasterxml.jackson.databind.Module;
+import dev.onyx.example.customer.json.CustomerJsonModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Picked up by Spring Boot's auto-configured {@code ObjectMapper}; {@code onyx.streaming-json-enabled=false}
+     * falls back to reflective binding.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "onyx", name = "streaming-json-enabled", havingValue = "true", matchIfMissing = true)
+    public Module customerJsonModule() {
+        return new CustomerJsonModule();
+    }
+}
@@ -4,12 +4,15 @@ import com.onyx.cloud.api.IOnyxDatabase;
 import com.onyx.cloud.api.OnyxConfig;
 import com.onyx.cloud.impl.OnyxClient;
 import com.onyx.cloud.impl.OnyxFacadeImpl;
+import dev.onyx.example.customer.store.OnyxCustomerStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.util.Assert;
 
 @Configuration
+@ConditionalOnProperty(prefix = "onyx", name = "mode", havingValue = "remote", matchIfMissing = true)
 public class OnyxClientConfig {
 
     @Bean(destroyMethod = "close")
@@ -36,6 +39,12 @@ public class OnyxClientConfig {
         return (OnyxClient) OnyxFacadeImpl.INSTANCE.init(config);
     }
 
+    // Straight to the client: through the decorated store, the caches and replica could answer the warm-up queries.
+    @Bean
+    public OnyxConnectionWarmer onyxConnectionWarmer(OnyxClient onyxClient, OnyxProperties properties) {
+        return new OnyxConnectionWarmer(new OnyxCustomerStore(onyxClient), properties);
+    }
+
     @Bean
     @Primary
     public IOnyxDatabase<Object> onyxDatabase(OnyxClient onyxClient) {
@@ -0,0 +1,79 @@
+package dev.onyx.example.customer.config;
+
+import dev.onyx.example.customer.store.CustomerQuery;
+import dev.onyx.example.customer.store.CustomerStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Issues {@code onyx.http.prewarm-connections} one-row queries to Onyx in parallel before the application reports
+ * itself ready, so connection setup and TLS handshakes happen at startup instead of on the first user requests. The
+ * queries go to the bare Onyx store, never through the caches or replica. How many connections they open is up to
+ * the client's HTTP stack: over HTTP/2 parallel requests share one multiplexed connection, so this mostly warms one
+ * connection and the TLS session. Failures are logged and never block startup beyond {@code prewarm-timeout-ms}.
+ */
+public class OnyxConnectionWarmer implements ApplicationRunner, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OnyxConnectionWarmer.class);
+
+    private final CustomerStore onyxStore;
+    private final OnyxProperties properties;
+    private final AtomicInteger warmed = new AtomicInteger();
+
+    public OnyxConnectionWarmer(CustomerStore onyxStore, OnyxProperties properties) {
+        this.onyxStore = onyxStore;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        OnyxProperties.Http http = properties.getHttp();
+        int connections = http.getPrewarmConnections();
+        if (connections <= 0) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<CompletableFuture<Void>> calls = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                calls.add(CompletableFuture.runAsync(this::warmOne, executor));
+            }
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                    .get(http.getPrewarmTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            log.warn("Onyx connection pre-warming did not finish within {} ms", http.getPrewarmTimeoutMs());
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Onyx connection pre-warming failed", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Pre-warmed {} of {} Onyx connections", warmed.get(), connections);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registry.gauge("onyx.http.prewarmed", warmed);
+    }
+
+    private void warmOne() {
+        onyxStore.query(CustomerQuery.inPartition(properties.getPartition()).pageSize(1));
+        warmed.incrementAndGet();
+    }
+}
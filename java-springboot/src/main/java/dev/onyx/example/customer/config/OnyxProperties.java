@@ -1,12 +1,29 @@
 package dev.onyx.example.customer.config;
 
+import dev.onyx.example.customer.store.WriteBehindCustomerStore;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Validated
 @ConfigurationProperties(prefix = "onyx")
 public class OnyxProperties {
 
+    public enum Mode {
+        /**
+         * Talk to a live Onyx database through {@code OnyxClient}.
+         */
+        REMOTE,
+        /**
+         * Keep customers in process; for load tests and benchmarks without network access.
+         */
+        IN_MEMORY
+    }
+
+    private Mode mode = Mode.REMOTE;
+
     /**
      * The fully qualified Onyx base URL, e.g. https://api.onyx.dev.
      */
@@ -32,6 +49,18 @@ public class OnyxProperties {
      */
     private String partition;
 
+    /**
+     * Partitions that get their own metric tags and circuits. The default partition and replicated partitions are
+     * always included.
+     */
+    private List<String> knownPartitions = new ArrayList<>();
+
+    /**
+     * How many partitions outside {@code knownPartitions} get their own metric tags and circuits, first come first
+     * served; the rest share an {@code other} one.
+     */
+    private int maxTrackedPartitions = 32;
+
     private Boolean requestLoggingEnabled;
 
     private Boolean responseLoggingEnabled;
@@ -42,6 +71,84 @@ public class OnyxProperties {
 
     private Integer connectTimeoutMs;
 
+    /**
+     * Simulated latency and failures when {@code mode} is {@code in-memory}.
+     */
+    private final InMemory inMemory = new InMemory();
+
+    /**
+     * Connection warm-up for {@code OnyxClient}; pool sizing is a JVM option, see the README.
+     */
+    private final Http http = new Http();
+
+    /**
+     * In-process read-through cache for customer lookups.
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * Chunking of bulk writes sent to Onyx.
+     */
+    private final Batch batch = new Batch();
+
+    /**
+     * Admission limit for calls made toward Onyx.
+     */
+    private final Concurrency concurrency = new Concurrency();
+
+    /**
+     * Share one Onyx read between concurrent lookups of the same customer.
+     */
+    private boolean singleFlightEnabled = true;
+
+    /**
+     * Map customer bodies with the hand-written streaming (de)serializers instead of reflective Jackson binding.
+     */
+    private boolean streamingJsonEnabled = true;
+
+    /**
+     * Executor behind {@code CustomerServiceAsync} and the cross-partition fan-out.
+     */
+    private final Async async = new Async();
+
+    /**
+     * Optional buffering and coalescing of single-customer saves.
+     */
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * Adaptive timeouts, retries and hedging for reads.
+     */
+    private final Resilience resilience = new Resilience();
+
+    /**
+     * Per-operation, per-partition circuit breaking in front of Onyx.
+     */
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Optional file-backed cache of customers by id that survives restarts.
+     */
+    private final DiskCache diskCache = new DiskCache();
+
+    /**
+     * Optional local copy of whole partitions that serves reads without calling Onyx.
+     */
+    private final Replica replica = new Replica();
+
+    /**
+     * Fan-out of list queries across partitions.
+     */
+    private final ScatterGather scatterGather = new ScatterGather();
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
     public String getBaseUrl() {
         return baseUrl;
     }
@@ -82,6 +189,22 @@ public class OnyxProperties {
         this.partition = partition;
     }
 
+    public List<String> getKnownPartitions() {
+        return knownPartitions;
+    }
+
+    public void setKnownPartitions(List<String> knownPartitions) {
+        this.knownPartitions = knownPartitions;
+    }
+
+    public int getMaxTrackedPartitions() {
+        return maxTrackedPartitions;
+    }
+
+    public void setMaxTrackedPartitions(int maxTrackedPartitions) {
+        this.maxTrackedPartitions = maxTrackedPartitions;
+    }
+
     public Boolean getRequestLoggingEnabled() {
         return requestLoggingEnabled;
     }
@@ -121,4 +244,867 @@ public class OnyxProperties {
     public void setConnectTimeoutMs(Integer connectTimeoutMs) {
         this.connectTimeoutMs = connectTimeoutMs;
     }
+
+    public InMemory getInMemory() {
+        return inMemory;
+    }
+
+    public Http getHttp() {
+        return http;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Concurrency getConcurrency() {
+        return concurrency;
+    }
+
+    public boolean isSingleFlightEnabled() {
+        return singleFlightEnabled;
+    }
+
+    public void setSingleFlightEnabled(boolean singleFlightEnabled) {
+        this.singleFlightEnabled = singleFlightEnabled;
+    }
+
+    public boolean isStreamingJsonEnabled() {
+        return streamingJsonEnabled;
+    }
+
+    public void setStreamingJsonEnabled(boolean streamingJsonEnabled) {
+        this.streamingJsonEnabled = streamingJsonEnabled;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public DiskCache getDiskCache() {
+        return diskCache;
+    }
+
+    public Replica getReplica() {
+        return replica;
+    }
+
+    public ScatterGather getScatterGather() {
+        return scatterGather;
+    }
+
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of customers held before the least recently used entry is evicted.
+         */
+        private int maxSize = 10_000;
+
+        /**
+         * How long a cached customer is served before it is reloaded from Onyx.
+         */
+        private long ttlMs = 60_000;
+
+        /**
+         * How long past its TTL a cached customer may still be served when Onyx is unavailable; zero disables it.
+         */
+        private long staleIfErrorMs = 300_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTtlMs() {
+            return ttlMs;
+        }
+
+        public void setTtlMs(long ttlMs) {
+            this.ttlMs = ttlMs;
+        }
+
+        public long getStaleIfErrorMs() {
+            return staleIfErrorMs;
+        }
+
+        public void setStaleIfErrorMs(long staleIfErrorMs) {
+            this.staleIfErrorMs = staleIfErrorMs;
+        }
+    }
+
+    public static class Batch {
+
+        /**
+         * Number of customers sent to Onyx in a single save call.
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Concurrency {
+
+        /**
+         * Maximum number of Onyx calls in flight at once; zero or less disables the limit.
+         */
+        private int maxInFlight = 64;
+
+        /**
+         * How long a request waits for a free slot before it is rejected with 503.
+         */
+        private long acquireTimeoutMs = 1_000;
+
+        /**
+         * Adapt the limit to Onyx's health between {@code minInFlight} and {@code maxInFlight} instead of holding it
+         * at {@code maxInFlight}.
+         */
+        private boolean adaptive = true;
+
+        private int minInFlight = 4;
+
+        /**
+         * Factor the limit is multiplied by after a failed or slow call.
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * A call slower than this counts against the limit like a failure; zero counts only failures.
+         */
+        private long slowCallMs = 1_000;
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public long getAcquireTimeoutMs() {
+            return acquireTimeoutMs;
+        }
+
+        public void setAcquireTimeoutMs(long acquireTimeoutMs) {
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        public void setAdaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+        }
+
+        public int getMinInFlight() {
+            return minInFlight;
+        }
+
+        public void setMinInFlight(int minInFlight) {
+            this.minInFlight = minInFlight;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public long getSlowCallMs() {
+            return slowCallMs;
+        }
+
+        public void setSlowCallMs(long slowCallMs) {
+            this.slowCallMs = slowCallMs;
+        }
+    }
+
+    public static class Async {
+
+        /**
+         * Run async customer calls on virtual threads instead of a fixed pool.
+         */
+        private boolean virtualThreads = false;
+
+        private int poolSize = 32;
+
+        /**
+         * Tasks queued beyond the pool before submissions are rejected.
+         */
+        private int queueCapacity = 1_000;
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class InMemory {
+
+        /**
+         * Fixed delay added to every call.
+         */
+        private long latencyMs = 0;
+
+        /**
+         * Upper bound of a random delay added on top of {@code latencyMs}.
+         */
+        private long latencyJitterMs = 0;
+
+        /**
+         * Fraction of calls, between 0 and 1, that fail with an injected error.
+         */
+        private double errorRate = 0;
+
+        public long getLatencyMs() {
+            return latencyMs;
+        }
+
+        public void setLatencyMs(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        public long getLatencyJitterMs() {
+            return latencyJitterMs;
+        }
+
+        public void setLatencyJitterMs(long latencyJitterMs) {
+            this.latencyJitterMs = latencyJitterMs;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+    }
+
+    public static class WriteBehind {
+
+        private boolean enabled = false;
+
+        /**
+         * Pending customers that trigger an immediate flush; also the size of each batch sent to Onyx.
+         */
+        private int maxBatchSize = 500;
+
+        /**
+         * Hard cap on buffered customers; saves beyond it flush on the caller's thread.
+         */
+        private int maxBufferedCustomers = 10_000;
+
+        private long flushIntervalMs = 1_000;
+
+        /**
+         * What happens to a batch Onyx rejects: RETRY puts it back in the buffer, DROP discards it.
+         */
+        private WriteBehindCustomerStore.FailurePolicy failurePolicy = WriteBehindCustomerStore.FailurePolicy.RETRY;
+
+        /**
+         * Total write attempts per customer under the RETRY policy.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Write the remaining buffer before the Onyx client is closed on shutdown.
+         */
+        private boolean flushOnShutdown = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public int getMaxBufferedCustomers() {
+            return maxBufferedCustomers;
+        }
+
+        public void setMaxBufferedCustomers(int maxBufferedCustomers) {
+            this.maxBufferedCustomers = maxBufferedCustomers;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public WriteBehindCustomerStore.FailurePolicy getFailurePolicy() {
+            return failurePolicy;
+        }
+
+        public void setFailurePolicy(WriteBehindCustomerStore.FailurePolicy failurePolicy) {
+            this.failurePolicy = failurePolicy;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public boolean isFlushOnShutdown() {
+            return flushOnShutdown;
+        }
+
+        public void setFlushOnShutdown(boolean flushOnShutdown) {
+            this.flushOnShutdown = flushOnShutdown;
+        }
+    }
+
+    public static class Http {
+
+        /**
+         * Parallel requests issued at startup to open connections before traffic arrives; zero disables pre-warming.
+         */
+        private int prewarmConnections = 0;
+
+        private long prewarmTimeoutMs = 5_000;
+
+        public int getPrewarmConnections() {
+            return prewarmConnections;
+        }
+
+        public void setPrewarmConnections(int prewarmConnections) {
+            this.prewarmConnections = prewarmConnections;
+        }
+
+        public long getPrewarmTimeoutMs() {
+            return prewarmTimeoutMs;
+        }
+
+        public void setPrewarmTimeoutMs(long prewarmTimeoutMs) {
+            this.prewarmTimeoutMs = prewarmTimeoutMs;
+        }
+    }
+
+    public static class ScatterGather {
+
+        /**
+         * Partitions queried when a request names none; when empty, the partitions the store can discover are used.
+         */
+        private List<String> partitions = new ArrayList<>();
+
+        /**
+         * Partitions queried at the same time by one request.
+         */
+        private int parallelism = 8;
+
+        /**
+         * Time budget for the whole fan-out; partitions still running after it are reported as timed out.
+         */
+        private long timeoutMs = 5_000;
+
+        /**
+         * Customers returned when a request sets no limit, and the most a request may ask for.
+         */
+        private int defaultLimit = 1_000;
+
+        private int maxLimit = 10_000;
+
+        public List<String> getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(List<String> partitions) {
+            this.partitions = partitions;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    public static class Resilience {
+
+        private boolean enabled = true;
+
+        /**
+         * Recent calls per operation that timeouts and hedge delays are derived from.
+         */
+        private int windowSize = 1_024;
+
+        /**
+         * Calls an operation needs before its timeout adapts; until then {@code maxTimeoutMs} applies.
+         */
+        private int minSamples = 100;
+
+        /**
+         * Latency percentile the timeout is based on, scaled by {@code timeoutMultiplier}.
+         */
+        private double timeoutPercentile = 0.99;
+
+        private double timeoutMultiplier = 2.0;
+
+        /**
+         * Bounds for the adaptive timeout; zero for {@code maxTimeoutMs} means {@code onyx.request-timeout-ms}.
+         */
+        private long minTimeoutMs = 50;
+
+        private long maxTimeoutMs = 0;
+
+        /**
+         * Tries per read, including the first.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Backoff before retry n is random up to {@code min(backoffMaxMs, backoffBaseMs * 2^(n-1))}.
+         */
+        private long backoffBaseMs = 20;
+
+        private long backoffMaxMs = 500;
+
+        /**
+         * Retries and hedges earned per read; bounds extra load to roughly this fraction of traffic.
+         */
+        private double retryBudgetRatio = 0.1;
+
+        /**
+         * Most retries that can be saved up for a burst of failures.
+         */
+        private int retryBudgetMax = 20;
+
+        /**
+         * Send a second read when the first is slower than {@code hedgePercentile} of recent calls.
+         */
+        private boolean hedgingEnabled = false;
+
+        private double hedgePercentile = 0.95;
+
+        /**
+         * Shortest wait before hedging, so fast operations are not doubled on noise.
+         */
+        private long hedgeMinDelayMs = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public double getTimeoutPercentile() {
+            return timeoutPercentile;
+        }
+
+        public void setTimeoutPercentile(double timeoutPercentile) {
+            this.timeoutPercentile = timeoutPercentile;
+        }
+
+        public double getTimeoutMultiplier() {
+            return timeoutMultiplier;
+        }
+
+        public void setTimeoutMultiplier(double timeoutMultiplier) {
+            this.timeoutMultiplier = timeoutMultiplier;
+        }
+
+        public long getMinTimeoutMs() {
+            return minTimeoutMs;
+        }
+
+        public void setMinTimeoutMs(long minTimeoutMs) {
+            this.minTimeoutMs = minTimeoutMs;
+        }
+
+        public long getMaxTimeoutMs() {
+            return maxTimeoutMs;
+        }
+
+        public void setMaxTimeoutMs(long maxTimeoutMs) {
+            this.maxTimeoutMs = maxTimeoutMs;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getBackoffBaseMs() {
+            return backoffBaseMs;
+        }
+
+        public void setBackoffBaseMs(long backoffBaseMs) {
+            this.backoffBaseMs = backoffBaseMs;
+        }
+
+        public long getBackoffMaxMs() {
+            return backoffMaxMs;
+        }
+
+        public void setBackoffMaxMs(long backoffMaxMs) {
+            this.backoffMaxMs = backoffMaxMs;
+        }
+
+        public double getRetryBudgetRatio() {
+            return retryBudgetRatio;
+        }
+
+        public void setRetryBudgetRatio(double retryBudgetRatio) {
+            this.retryBudgetRatio = retryBudgetRatio;
+        }
+
+        public int getRetryBudgetMax() {
+            return retryBudgetMax;
+        }
+
+        public void setRetryBudgetMax(int retryBudgetMax) {
+            this.retryBudgetMax = retryBudgetMax;
+        }
+
+        public boolean isHedgingEnabled() {
+            return hedgingEnabled;
+        }
+
+        public void setHedgingEnabled(boolean hedgingEnabled) {
+            this.hedgingEnabled = hedgingEnabled;
+        }
+
+        public double getHedgePercentile() {
+            return hedgePercentile;
+        }
+
+        public void setHedgePercentile(double hedgePercentile) {
+            this.hedgePercentile = hedgePercentile;
+        }
+
+        public long getHedgeMinDelayMs() {
+            return hedgeMinDelayMs;
+        }
+
+        public void setHedgeMinDelayMs(long hedgeMinDelayMs) {
+            this.hedgeMinDelayMs = hedgeMinDelayMs;
+        }
+    }
+
+    public static class CircuitBreaker {
+
+        private boolean enabled = true;
+
+        /**
+         * Recent calls per operation and partition that the failure rate is computed over.
+         */
+        private int windowSize = 50;
+
+        /**
+         * Calls a circuit needs in its window before it may open.
+         */
+        private int minCalls = 20;
+
+        /**
+         * Fraction of failed calls in the window that opens the circuit.
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * How long an open circuit rejects calls before letting probes through.
+         */
+        private long openMs = 5_000;
+
+        /**
+         * Trial calls let through after {@code openMs}; all must succeed for the circuit to close.
+         */
+        private int halfOpenProbes = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinCalls() {
+            return minCalls;
+        }
+
+        public void setMinCalls(int minCalls) {
+            this.minCalls = minCalls;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public long getOpenMs() {
+            return openMs;
+        }
+
+        public void setOpenMs(long openMs) {
+            this.openMs = openMs;
+        }
+
+        public int getHalfOpenProbes() {
+            return halfOpenProbes;
+        }
+
+        public void setHalfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = halfOpenProbes;
+        }
+    }
+
+    public static class Replica {
+
+        private boolean enabled = false;
+
+        /**
+         * Partitions copied locally; when empty, the partitions the store can discover at startup.
+         */
+        private List<String> partitions = new ArrayList<>();
+
+        /**
+         * Pause between the end of one full reload of a partition and the start of the next.
+         */
+        private long refreshIntervalMs = 30_000;
+
+        /**
+         * Oldest a partition's copy may be and still answer reads; older copies send reads to Onyx.
+         */
+        private long maxStalenessMs = 120_000;
+
+        /**
+         * Customers fetched per page while loading a partition.
+         */
+        private int scanPageSize = 1_000;
+
+        /**
+         * Threads reloading partitions, so one slow partition does not hold back the others.
+         */
+        private int refreshThreads = 4;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(List<String> partitions) {
+            this.partitions = partitions;
+        }
+
+        public long getRefreshIntervalMs() {
+            return refreshIntervalMs;
+        }
+
+        public void setRefreshIntervalMs(long refreshIntervalMs) {
+            this.refreshIntervalMs = refreshIntervalMs;
+        }
+
+        public long getMaxStalenessMs() {
+            return maxStalenessMs;
+        }
+
+        public void setMaxStalenessMs(long maxStalenessMs) {
+            this.maxStalenessMs = maxStalenessMs;
+        }
+
+        public int getScanPageSize() {
+            return scanPageSize;
+        }
+
+        public void setScanPageSize(int scanPageSize) {
+            this.scanPageSize = scanPageSize;
+        }
+
+        public int getRefreshThreads() {
+            return refreshThreads;
+        }
+
+        public void setRefreshThreads(int refreshThreads) {
+            this.refreshThreads = refreshThreads;
+        }
+    }
+
+    public static class DiskCache {
+
+        private boolean enabled = false;
+
+        /**
+         * Directory holding the cache file; it must not be shared with another running instance.
+         */
+        private String directory = "data/customer-cache";
+
+        /**
+         * Fixed size of the cache file; once it is full, the oldest customers are dropped.
+         */
+        private int maxSizeMb = 256;
+
+        /**
+         * How long a customer written to the file may be served from it. Writes from other instances are not seen,
+         * so this bounds how stale a lookup can be.
+         */
+        private long ttlMs = 600_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getMaxSizeMb() {
+            return maxSizeMb;
+        }
+
+        public void setMaxSizeMb(int maxSizeMb) {
+            this.maxSizeMb = maxSizeMb;
+        }
+
+        public long getTtlMs() {
+            return ttlMs;
+        }
+
+        public void setTtlMs(long ttlMs) {
+            this.ttlMs = ttlMs;
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package dev.onyx.example.customer.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.onyx.example.customer.controller.WireFormats;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Lets clients send and receive Smile or CBOR by setting {@code Content-Type}/{@code Accept}. The converters are
+ * appended after the JSON one, so requests that accept anything still get JSON.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final WireFormats wireFormats;
+
+    public WireFormatConfig(Jackson2ObjectMapperBuilder builder) {
+        // The builder carries Spring Boot's Jackson settings and every registered module, including the customer one.
+        this.wireFormats = new WireFormats(
+                builder.factory(new SmileFactory()).build(),
+                builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public WireFormats wireFormats() {
+        return wireFormats;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2SmileHttpMessageConverter(wireFormats.getSmileMapper()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(wireFormats.getCborMapper()));
+    }
+}
@@ -1,13 +1,31 @@
 package dev.onyx.example.customer.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.onyx.example.customer.dto.BatchCustomerRequest;
+import dev.onyx.example.customer.dto.BatchResult;
+import dev.onyx.example.customer.dto.BulkDeleteRequest;
+import dev.onyx.example.customer.dto.BulkDeleteResult;
+import dev.onyx.example.customer.dto.CrossPartitionPage;
+import dev.onyx.example.customer.dto.CustomerFilter;
+import dev.onyx.example.customer.dto.CustomerPage;
+import dev.onyx.example.customer.dto.CustomerPatchRequest;
 import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.dto.MultiGetItem;
+import dev.onyx.example.customer.dto.MultiGetRequest;
 import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.service.CrossPartitionQueryService;
 import dev.onyx.example.customer.service.CustomerService;
+import dev.onyx.example.customer.service.CustomerServiceAsync;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -15,52 +33,172 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/customers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CustomerController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
     private final CustomerService customerService;
+    private final CustomerServiceAsync customerServiceAsync;
+    private final CrossPartitionQueryService crossPartitionQueryService;
+    private final ObjectMapper objectMapper;
+    private final WireFormats wireFormats;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService,
+                              CustomerServiceAsync customerServiceAsync,
+                              CrossPartitionQueryService crossPartitionQueryService,
+                              ObjectMapper objectMapper,
+                              WireFormats wireFormats) {
         this.customerService = customerService;
+        this.customerServiceAsync = customerServiceAsync;
+        this.crossPartitionQueryService = crossPartitionQueryService;
+        this.objectMapper = objectMapper;
+        this.wireFormats = wireFormats;
     }
 
+    // Single-customer calls run on the customer executor and complete the response from there, so a slow Onyx
+    // call holds no servlet thread.
     @PostMapping
-    public ResponseEntity<Customer> create(@Valid @RequestBody CustomerRequest request) {
-        Customer created = customerService.create(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    public CompletableFuture<ResponseEntity<Customer>> create(@Valid @RequestBody CustomerRequest request) {
+        return customerServiceAsync.createAsync(request)
+                .thenApply(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createBatch(@RequestBody List<BatchCustomerRequest> requests) {
+        BatchResult result = customerService.saveAll(requests);
+        HttpStatus status = result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @PostMapping("/_mget")
+    public ResponseEntity<List<MultiGetItem>> multiGet(@Valid @RequestBody MultiGetRequest request) {
+        List<MultiGetItem> items = customerService.getAll(request.getCustomerIds(), request.getCountryCode());
+        return ResponseEntity.ok(items);
+    }
+
+    @GetMapping("/_all")
+    public ResponseEntity<CrossPartitionPage> listAcrossPartitions(@RequestParam(name = "partitions", required = false) List<String> partitions,
+                                                                   @RequestParam(name = "limit", required = false) Integer limit,
+                                                                   CustomerFilter filter) {
+        return ResponseEntity.ok(crossPartitionQueryService.list(partitions, limit, filter));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<Map<String, Object>>> stats(@RequestParam(name = "countryCode", required = false) String countryCode,
+                                                           @RequestParam(name = "groupBy", required = false) List<String> groupBy,
+                                                           @RequestParam(name = "metrics", required = false) List<String> metrics,
+                                                           CustomerFilter filter) {
+        return ResponseEntity.ok(customerService.stats(countryCode, groupBy, metrics, filter));
     }
 
     @GetMapping("/{customerId}")
-    public ResponseEntity<Customer> getById(@PathVariable String customerId,
-                                            @RequestParam(name = "countryCode", required = false) String countryCode) {
-        Optional<Customer> customer = customerService.get(customerId, countryCode);
-        return customer.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public CompletableFuture<ResponseEntity<Customer>> getById(@PathVariable String customerId,
+                                                               @RequestParam(name = "countryCode", required = false) String countryCode) {
+        return customerServiceAsync.getAsync(customerId, countryCode)
+                .thenApply(customer -> customer.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build()));
     }
 
     @GetMapping
     public ResponseEntity<List<Customer>> list(@RequestParam(name = "countryCode", required = false) String countryCode,
-                                               @RequestParam(name = "pageSize", required = false) Integer pageSize) {
-        List<Customer> customers = customerService.list(countryCode, pageSize);
-        return ResponseEntity.ok(customers);
+                                               @RequestParam(name = "pageSize", required = false) Integer pageSize,
+                                               @RequestParam(name = "pageToken", required = false) String pageToken,
+                                               CustomerFilter filter) {
+        CustomerPage page = customerService.list(countryCode, pageSize, pageToken, filter);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextPageToken() != null) {
+            response.header(NEXT_PAGE_TOKEN_HEADER, page.nextPageToken());
+        }
+        return response.body(page.customers());
+    }
+
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(name = "countryCode", required = false) String countryCode,
+                                                        @RequestParam(name = "pageSize", defaultValue = "500") int pageSize) {
+        return stream(objectMapper, NDJSON, countryCode, pageSize);
+    }
+
+    // Smile and CBOR items are self-delimiting, so the binary streams are plain concatenations without separators.
+    @GetMapping(value = "/stream", produces = WireFormats.SMILE)
+    public ResponseEntity<StreamingResponseBody> streamSmile(@RequestParam(name = "countryCode", required = false) String countryCode,
+                                                             @RequestParam(name = "pageSize", defaultValue = "500") int pageSize) {
+        return stream(wireFormats.getSmileMapper(), WireFormats.SMILE, countryCode, pageSize);
+    }
+
+    @GetMapping(value = "/stream", produces = WireFormats.CBOR_SEQ)
+    public ResponseEntity<StreamingResponseBody> streamCbor(@RequestParam(name = "countryCode", required = false) String countryCode,
+                                                            @RequestParam(name = "pageSize", defaultValue = "500") int pageSize) {
+        return stream(wireFormats.getCborMapper(), WireFormats.CBOR_SEQ, countryCode, pageSize);
+    }
+
+    // Clients that only know application/cbor get the same sequence rather than a 406; strictly a single CBOR item
+    // is expected under that type, so decoders must read items until the end of the body.
+    @GetMapping(value = "/stream", produces = WireFormats.CBOR)
+    public ResponseEntity<StreamingResponseBody> streamCborItems(@RequestParam(name = "countryCode", required = false) String countryCode,
+                                                                 @RequestParam(name = "pageSize", defaultValue = "500") int pageSize) {
+        return stream(wireFormats.getCborMapper(), WireFormats.CBOR, countryCode, pageSize);
     }
 
     @PutMapping("/{customerId}")
-    public ResponseEntity<Customer> update(@PathVariable String customerId,
-                                           @Valid @RequestBody CustomerRequest request,
-                                           @RequestParam(name = "countryCode", required = false) String countryCode) {
-        Customer updated = customerService.update(customerId, request, countryCode);
-        return ResponseEntity.ok(updated);
+    public CompletableFuture<ResponseEntity<Customer>> update(@PathVariable String customerId,
+                                                              @Valid @RequestBody CustomerRequest request,
+                                                              @RequestParam(name = "countryCode", required = false) String countryCode) {
+        return customerServiceAsync.updateAsync(customerId, request, countryCode).thenApply(ResponseEntity::ok);
+    }
+
+    @PatchMapping("/{customerId}")
+    public CompletableFuture<ResponseEntity<Void>> patch(@PathVariable String customerId,
+                                                         @Valid @RequestBody CustomerPatchRequest request,
+                                                         @RequestParam(name = "countryCode", required = false) String countryCode) {
+        return customerServiceAsync.patchAsync(customerId, request, countryCode).thenApply(CustomerController::noContentOrNotFound);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResult> deleteAll(@Valid @RequestBody BulkDeleteRequest request) {
+        BulkDeleteResult result = customerService.deleteAll(request);
+        HttpStatus status = result.failed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
     }
 
     @DeleteMapping("/{customerId}")
-    public ResponseEntity<Void> delete(@PathVariable String customerId,
-                                       @RequestParam(name = "countryCode", required = false) String countryCode) {
-        boolean deleted = customerService.delete(customerId, countryCode);
-        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<Void>> delete(@PathVariable String customerId,
+                                                          @RequestParam(name = "countryCode", required = false) String countryCode) {
+        return customerServiceAsync.deleteAsync(customerId, countryCode).thenApply(CustomerController::noContentOrNotFound);
+    }
+
+    private static ResponseEntity<Void> noContentOrNotFound(boolean found) {
+        return found ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(ObjectMapper mapper, String contentType, String countryCode, int pageSize) {
+        ObjectWriter writer = mapper.writerFor(Customer.class);
+        boolean newlineDelimited = NDJSON.equals(contentType);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                customerService.forEach(countryCode, Math.max(1, pageSize), customer -> {
+                    try {
+                        writer.writeValue(generator, customer);
+                        if (newlineDelimited) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(contentType)).body(body);
     }
 }
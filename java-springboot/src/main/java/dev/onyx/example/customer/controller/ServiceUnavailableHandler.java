@@ -0,0 +1,35 @@
+package dev.onyx.example.customer.controller;
+
+import dev.onyx.example.customer.store.OnyxUnavailableException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Adds {@code Retry-After} to the 503 sent when Onyx is unavailable, so shed clients back off for as long as the
+ * concurrency limit or circuit breaker suggests. The error body is still rendered by Spring Boot's error page.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServiceUnavailableHandler {
+
+    @ExceptionHandler(OnyxUnavailableException.class)
+    public void handle(OnyxUnavailableException ex, HttpServletResponse response) throws IOException {
+        if (ex.getRetryAfterMs() > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.ceilDiv(ex.getRetryAfterMs(), 1_000)));
+        }
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    // The customer executor's queue is full; shed the request like an Onyx admission rejection.
+    @ExceptionHandler(RejectedExecutionException.class)
+    public void handle(RejectedExecutionException ex, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+}
@@ -0,0 +1,33 @@
+package dev.onyx.example.customer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Binary alternatives to JSON for high-volume clients. Both mappers carry the same modules and settings as the
+ * JSON {@code ObjectMapper}; only the encoding differs.
+ */
+public final class WireFormats {
+
+    public static final String SMILE = "application/x-jackson-smile";
+    public static final String CBOR = "application/cbor";
+    /**
+     * Concatenated CBOR items (RFC 8742), used for the streaming endpoint.
+     */
+    public static final String CBOR_SEQ = "application/cbor-seq";
+
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper cborMapper;
+
+    public WireFormats(ObjectMapper smileMapper, ObjectMapper cborMapper) {
+        this.smileMapper = smileMapper;
+        this.cborMapper = cborMapper;
+    }
+
+    public ObjectMapper getSmileMapper() {
+        return smileMapper;
+    }
+
+    public ObjectMapper getCborMapper() {
+        return cborMapper;
+    }
+}
@@ -0,0 +1,22 @@
+package dev.onyx.example.customer.dto;
+
+/**
+ * One entry of {@code POST /api/customers/batch}. Without a {@code customerId} the entry creates a new customer;
+ * with one it replaces that customer, keeping its {@code dateCreated}, or creates it under that id if it does not
+ * exist yet.
+ */
+public class BatchCustomerRequest extends CustomerRequest {
+
+    private String customerId;
+
+    public BatchCustomerRequest() {
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+}
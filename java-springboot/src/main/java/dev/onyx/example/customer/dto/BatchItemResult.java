@@ -0,0 +1,41 @@
+package dev.onyx.example.customer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a single entry in a bulk request, reported at the same index it was submitted at.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, String customerId, Status status, List<String> errors) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        INVALID,
+        FAILED
+    }
+
+    public static BatchItemResult created(int index, String customerId) {
+        return new BatchItemResult(index, customerId, Status.CREATED, null);
+    }
+
+    public static BatchItemResult updated(int index, String customerId) {
+        return new BatchItemResult(index, customerId, Status.UPDATED, null);
+    }
+
+    public static BatchItemResult invalid(int index, List<String> errors) {
+        return new BatchItemResult(index, null, Status.INVALID, errors);
+    }
+
+    public static BatchItemResult failed(int index, String customerId, String error) {
+        return new BatchItemResult(index, customerId, Status.FAILED, error == null ? null : List.of(error));
+    }
+
+    @JsonIgnore
+    public boolean isSuccess() {
+        return status == Status.CREATED || status == Status.UPDATED;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.onyx.example.customer.dto;
+
+import java.util.List;
+
+public record BatchResult(int total, int succeeded, int failed, List<BatchItemResult> items) {
+
+    public static BatchResult of(List<BatchItemResult> items) {
+        int succeeded = (int) items.stream().filter(BatchItemResult::isSuccess).count();
+        return new BatchResult(items.size(), succeeded, items.size() - succeeded, items);
+    }
+}
@@ -0,0 +1,28 @@
+package dev.onyx.example.customer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome for one id of a bulk delete; {@code error} explains a {@code FAILED} entry.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkDeleteItem(String customerId, Status status, String error) {
+
+    public enum Status {
+        DELETED,
+        NOT_FOUND,
+        FAILED
+    }
+
+    public static BulkDeleteItem deleted(String customerId) {
+        return new BulkDeleteItem(customerId, Status.DELETED, null);
+    }
+
+    public static BulkDeleteItem notFound(String customerId) {
+        return new BulkDeleteItem(customerId, Status.NOT_FOUND, null);
+    }
+
+    public static BulkDeleteItem failed(String customerId, String error) {
+        return new BulkDeleteItem(customerId, Status.FAILED, error);
+    }
+}
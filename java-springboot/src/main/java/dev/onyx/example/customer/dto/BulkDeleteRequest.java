@@ -0,0 +1,47 @@
+package dev.onyx.example.customer.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Either {@code customerIds} or a {@code where} predicate, never both. {@code where} takes the list endpoint's
+ * filters; projection and sort do not apply.
+ */
+public class BulkDeleteRequest {
+
+    @Size(max = 1000)
+    private List<@NotBlank String> customerIds;
+
+    private CustomerFilter where;
+
+    private String countryCode;
+
+    public BulkDeleteRequest() {
+    }
+
+    public List<String> getCustomerIds() {
+        return customerIds;
+    }
+
+    public void setCustomerIds(List<String> customerIds) {
+        this.customerIds = customerIds;
+    }
+
+    public CustomerFilter getWhere() {
+        return where;
+    }
+
+    public void setWhere(CustomerFilter where) {
+        this.where = where;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+}
@@ -0,0 +1,30 @@
+package dev.onyx.example.customer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Totals for a bulk delete. {@code items} lists every requested id in request order and is omitted for
+ * predicate deletes, which only report how many customers matched.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkDeleteResult(int deleted, int notFound, int failed, List<BulkDeleteItem> items) {
+
+    public static BulkDeleteResult of(List<BulkDeleteItem> items) {
+        int deleted = 0;
+        int notFound = 0;
+        for (BulkDeleteItem item : items) {
+            if (item.status() == BulkDeleteItem.Status.DELETED) {
+                deleted++;
+            } else if (item.status() == BulkDeleteItem.Status.NOT_FOUND) {
+                notFound++;
+            }
+        }
+        return new BulkDeleteResult(deleted, notFound, items.size() - deleted - notFound, items);
+    }
+
+    public static BulkDeleteResult matched(int deleted) {
+        return new BulkDeleteResult(deleted, 0, 0, null);
+    }
+}
@@ -0,0 +1,11 @@
+package dev.onyx.example.customer.dto;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.List;
+
+/**
+ * Customers merged from several partitions, plus the outcome for each partition that was asked.
+ */
+public record CrossPartitionPage(List<Customer> customers, List<PartitionResult> partitions) {
+}
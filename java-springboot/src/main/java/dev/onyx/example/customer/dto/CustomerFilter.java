@@ -0,0 +1,77 @@
+package dev.onyx.example.customer.dto;
+
+import java.util.List;
+
+/**
+ * Optional list-endpoint query parameters. {@code fields} names the attributes to return, {@code sort} the
+ * attributes to order by, each prefixed with {@code -} for descending order (e.g. {@code sort=-balance,lastName}).
+ */
+public class CustomerFilter {
+
+    private Boolean isActive;
+    private Integer minAge;
+    private Integer maxAge;
+    private Float minBalance;
+    private Float maxBalance;
+    private List<String> fields;
+    private List<String> sort;
+
+    public CustomerFilter() {
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean active) {
+        isActive = active;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public Float getMinBalance() {
+        return minBalance;
+    }
+
+    public void setMinBalance(Float minBalance) {
+        this.minBalance = minBalance;
+    }
+
+    public Float getMaxBalance() {
+        return maxBalance;
+    }
+
+    public void setMaxBalance(Float maxBalance) {
+        this.maxBalance = maxBalance;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public List<String> getSort() {
+        return sort;
+    }
+
+    public void setSort(List<String> sort) {
+        this.sort = sort;
+    }
+}
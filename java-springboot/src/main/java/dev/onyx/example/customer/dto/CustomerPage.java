@@ -0,0 +1,11 @@
+package dev.onyx.example.customer.dto;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.List;
+
+/**
+ * One page of customers plus the opaque token for the page after it; {@code nextPageToken} is null on the last page.
+ */
+public record CustomerPage(List<Customer> customers, String nextPageToken) {
+}
@@ -0,0 +1,104 @@
+package dev.onyx.example.customer.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Partial customer update: only non-null fields are written, everything else (including {@code dateCreated}) is left as stored.
+ */
+public class CustomerPatchRequest {
+
+    @Pattern(regexp = ".*\\S.*", message = "must not be blank")
+    private String firstName;
+
+    @Pattern(regexp = ".*\\S.*", message = "must not be blank")
+    private String lastName;
+
+    @Email
+    @Pattern(regexp = ".*\\S.*", message = "must not be blank")
+    private String email;
+
+    @Min(0)
+    @Max(150)
+    private Integer age;
+
+    private Boolean isActive;
+
+    private Float balance;
+
+    @Valid
+    private ProfilePicRequest profilePic;
+
+    @Pattern(regexp = ".*\\S.*", message = "must not be blank")
+    private String countryCode;
+
+    public CustomerPatchRequest() {
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean active) {
+        isActive = active;
+    }
+
+    public Float getBalance() {
+        return balance;
+    }
+
+    public void setBalance(Float balance) {
+        this.balance = balance;
+    }
+
+    public ProfilePicRequest getProfilePic() {
+        return profilePic;
+    }
+
+    public void setProfilePic(ProfilePicRequest profilePic) {
+        this.profilePic = profilePic;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.onyx.example.customer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dev.onyx.example.customer.model.Customer;
+
+/**
+ * Result for one requested id; {@code customer} is omitted when {@code found} is false.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MultiGetItem(String customerId, boolean found, Customer customer) {
+}
@@ -0,0 +1,35 @@
+package dev.onyx.example.customer.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class MultiGetRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotBlank String> customerIds;
+
+    private String countryCode;
+
+    public MultiGetRequest() {
+    }
+
+    public List<String> getCustomerIds() {
+        return customerIds;
+    }
+
+    public void setCustomerIds(List<String> customerIds) {
+        this.customerIds = customerIds;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.onyx.example.customer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * How one partition fared in a cross-partition query; {@code error} is only set when it did not complete.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PartitionResult(String partition, Status status, int returned, String error) {
+
+    public enum Status {
+        OK,
+        FAILED,
+        TIMED_OUT,
+        /**
+         * Not queried, or abandoned, because the limit was already met by other partitions.
+         */
+        SKIPPED
+    }
+
+    public static PartitionResult ok(String partition, int returned) {
+        return new PartitionResult(partition, Status.OK, returned, null);
+    }
+
+    public static PartitionResult failed(String partition, String error) {
+        return new PartitionResult(partition, Status.FAILED, 0, error);
+    }
+
+    public static PartitionResult timedOut(String partition, long timeoutMs) {
+        return new PartitionResult(partition, Status.TIMED_OUT, 0, "no response within " + timeoutMs + " ms");
+    }
+
+    public static PartitionResult skipped(String partition) {
+        return new PartitionResult(partition, Status.SKIPPED, 0, null);
+    }
+}
@@ -0,0 +1,346 @@
+package dev.onyx.example.customer.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.dto.ProfilePicRequest;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.model.ProfilePic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Hand-written streaming (de)serialization of the customer types. Field names are pre-encoded once, nulls are
+ * omitted and unknown properties skipped, matching the annotations on the models. The Jackson serializers in
+ * {@link CustomerJsonModule} and anything that stores customers as bytes both go through here.
+ */
+public final class CustomerJson {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final SerializableString CUSTOMER_ID = new SerializedString("customerId");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString DATE_CREATED = new SerializedString("dateCreated");
+    private static final SerializableString IS_ACTIVE = new SerializedString("isActive");
+    private static final SerializableString BALANCE = new SerializedString("balance");
+    private static final SerializableString PROFILE_PIC = new SerializedString("profilePic");
+    private static final SerializableString COUNTRY_CODE = new SerializedString("countryCode");
+    private static final SerializableString URL = new SerializedString("url");
+    private static final SerializableString CONTENT_TYPE = new SerializedString("contentType");
+    private static final SerializableString SIZE_BYTES = new SerializedString("sizeBytes");
+
+    private CustomerJson() {
+    }
+
+    public static byte[] toBytes(Customer customer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            writeCustomer(customer, generator);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    public static Customer fromBytes(byte[] json) {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            parser.nextToken();
+            return readCustomer(parser, null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public static void writeCustomer(Customer customer, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(customer);
+        writeString(generator, CUSTOMER_ID, customer.getCustomerId());
+        writeString(generator, FIRST_NAME, customer.getFirstName());
+        writeString(generator, LAST_NAME, customer.getLastName());
+        writeString(generator, EMAIL, customer.getEmail());
+        writeInteger(generator, AGE, customer.getAge());
+        writeString(generator, DATE_CREATED, customer.getDateCreated());
+        writeBoolean(generator, IS_ACTIVE, customer.getIsActive());
+        writeFloat(generator, BALANCE, customer.getBalance());
+        if (customer.getProfilePic() != null) {
+            generator.writeFieldName(PROFILE_PIC);
+            writeProfilePic(customer.getProfilePic(), generator);
+        }
+        writeString(generator, COUNTRY_CODE, customer.getCountryCode());
+        generator.writeEndObject();
+    }
+
+    public static void writeProfilePic(ProfilePic profilePic, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(profilePic);
+        writeString(generator, URL, profilePic.getUrl());
+        writeString(generator, CONTENT_TYPE, profilePic.getContentType());
+        writeLong(generator, SIZE_BYTES, profilePic.getSizeBytes());
+        generator.writeEndObject();
+    }
+
+    public static void writeCustomerRequest(CustomerRequest request, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(request);
+        writeString(generator, FIRST_NAME, request.getFirstName());
+        writeString(generator, LAST_NAME, request.getLastName());
+        writeString(generator, EMAIL, request.getEmail());
+        writeInteger(generator, AGE, request.getAge());
+        writeBoolean(generator, IS_ACTIVE, request.getIsActive());
+        writeFloat(generator, BALANCE, request.getBalance());
+        ProfilePicRequest profilePic = request.getProfilePic();
+        if (profilePic != null) {
+            generator.writeFieldName(PROFILE_PIC);
+            generator.writeStartObject(profilePic);
+            writeString(generator, URL, profilePic.getUrl());
+            writeString(generator, CONTENT_TYPE, profilePic.getContentType());
+            writeLong(generator, SIZE_BYTES, profilePic.getSizeBytes());
+            generator.writeEndObject();
+        }
+        writeString(generator, COUNTRY_CODE, request.getCountryCode());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads a customer starting at the parser's current token. {@code context} may be null outside a Jackson
+     * deserializer; type mismatches are then reported as plain parse errors.
+     */
+    public static Customer readCustomer(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectObject(parser, context, Customer.class);
+        Customer customer = new Customer();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "customerId" -> customer.setCustomerId(readString(parser, context));
+                case "firstName" -> customer.setFirstName(readString(parser, context));
+                case "lastName" -> customer.setLastName(readString(parser, context));
+                case "email" -> customer.setEmail(readString(parser, context));
+                case "age" -> customer.setAge(readInteger(parser, context));
+                case "dateCreated" -> customer.setDateCreated(readString(parser, context));
+                case "isActive" -> customer.setIsActive(readBoolean(parser, context));
+                case "balance" -> customer.setBalance(readFloat(parser, context));
+                case "profilePic" -> customer.setProfilePic(readProfilePic(parser, context));
+                case "countryCode" -> customer.setCountryCode(readString(parser, context));
+                default -> parser.skipChildren();
+            }
+        }
+        return customer;
+    }
+
+    public static ProfilePic readProfilePic(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectObject(parser, context, ProfilePic.class);
+        ProfilePic profilePic = new ProfilePic();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "url" -> profilePic.setUrl(readString(parser, context));
+                case "contentType" -> profilePic.setContentType(readString(parser, context));
+                case "sizeBytes" -> profilePic.setSizeBytes(readLong(parser, context));
+                default -> parser.skipChildren();
+            }
+        }
+        return profilePic;
+    }
+
+    public static CustomerRequest readCustomerRequest(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectObject(parser, context, CustomerRequest.class);
+        CustomerRequest request = new CustomerRequest();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "firstName" -> request.setFirstName(readString(parser, context));
+                case "lastName" -> request.setLastName(readString(parser, context));
+                case "email" -> request.setEmail(readString(parser, context));
+                case "age" -> request.setAge(readInteger(parser, context));
+                case "isActive" -> request.setIsActive(readBoolean(parser, context));
+                case "balance" -> request.setBalance(readFloat(parser, context));
+                case "profilePic" -> request.setProfilePic(readProfilePicRequest(parser, context));
+                case "countryCode" -> request.setCountryCode(readString(parser, context));
+                default -> parser.skipChildren();
+            }
+        }
+        return request;
+    }
+
+    private static ProfilePicRequest readProfilePicRequest(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectObject(parser, context, ProfilePicRequest.class);
+        ProfilePicRequest profilePic = new ProfilePicRequest();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "url" -> profilePic.setUrl(readString(parser, context));
+                case "contentType" -> profilePic.setContentType(readString(parser, context));
+                case "sizeBytes" -> profilePic.setSizeBytes(readLong(parser, context));
+                default -> parser.skipChildren();
+            }
+        }
+        return profilePic;
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeString(value);
+        }
+    }
+
+    private static void writeInteger(JsonGenerator generator, SerializableString name, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeNumber(value.intValue());
+        }
+    }
+
+    private static void writeLong(JsonGenerator generator, SerializableString name, Long value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    private static void writeFloat(JsonGenerator generator, SerializableString name, Float value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeNumber(value.floatValue());
+        }
+    }
+
+    private static void writeBoolean(JsonGenerator generator, SerializableString name, Boolean value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeBoolean(value);
+        }
+    }
+
+    private static void expectObject(JsonParser parser, DeserializationContext context, Class<?> type) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            unexpected(parser, context, type);
+        }
+    }
+
+    // Scalars are coerced the way Jackson's default binding does: numbers from strings, ints from floats.
+    private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        return (String) unexpected(parser, context, String.class);
+    }
+
+    private static Integer readInteger(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            // Like Jackson: out-of-range integers fail, and JSON fractions are truncated (ACCEPT_FLOAT_AS_INT).
+            case VALUE_NUMBER_INT -> parser.getIntValue();
+            case VALUE_NUMBER_FLOAT -> parser.getValueAsInt();
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                try {
+                    // Strings are not coerced as leniently: "36.7" is rejected, as Jackson does.
+                    yield text.isEmpty() ? null : Integer.parseInt(text);
+                } catch (NumberFormatException ex) {
+                    yield (Integer) invalidString(parser, context, Integer.class, text);
+                }
+            }
+            default -> (Integer) unexpected(parser, context, Integer.class);
+        };
+    }
+
+    private static Long readLong(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_NUMBER_FLOAT -> parser.getValueAsLong();
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                try {
+                    yield text.isEmpty() ? null : Long.parseLong(text);
+                } catch (NumberFormatException ex) {
+                    yield (Long) invalidString(parser, context, Long.class, text);
+                }
+            }
+            default -> (Long) unexpected(parser, context, Long.class);
+        };
+    }
+
+    private static Float readFloat(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getFloatValue();
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                try {
+                    yield text.isEmpty() ? null : Float.parseFloat(text);
+                } catch (NumberFormatException ex) {
+                    yield (Float) invalidString(parser, context, Float.class, text);
+                }
+            }
+            default -> (Float) unexpected(parser, context, Float.class);
+        };
+    }
+
+    private static Boolean readBoolean(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                if (text.isEmpty()) {
+                    yield null;
+                }
+                if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+                    yield Boolean.valueOf(text);
+                }
+                yield (Boolean) invalidString(parser, context, Boolean.class, text);
+            }
+            default -> (Boolean) unexpected(parser, context, Boolean.class);
+        };
+    }
+
+    private static Object unexpected(JsonParser parser, DeserializationContext context, Class<?> type) throws IOException {
+        if (context != null) {
+            return context.handleUnexpectedToken(type, parser);
+        }
+        throw new JsonParseException(parser,
+                "Unexpected token " + parser.currentToken() + " for " + type.getSimpleName());
+    }
+
+    private static Object invalidString(JsonParser parser, DeserializationContext context, Class<?> type, String text) throws IOException {
+        if (context != null) {
+            return context.handleWeirdStringValue(type, text, "not a valid %s value", type.getSimpleName());
+        }
+        throw new JsonParseException(parser,
+                "Cannot read '" + text + "' as " + type.getSimpleName());
+    }
+}
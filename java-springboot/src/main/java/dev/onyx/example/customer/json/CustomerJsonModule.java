@@ -0,0 +1,103 @@
+package dev.onyx.example.customer.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.model.ProfilePic;
+
+import java.io.IOException;
+
+/**
+ * Registers the {@link CustomerJson} readers and writers with Jackson so request and response bodies skip
+ * reflective bean binding for the customer types.
+ */
+public class CustomerJsonModule extends SimpleModule {
+
+    public CustomerJsonModule() {
+        super("CustomerJsonModule");
+        addSerializer(Customer.class, new CustomerSerializer());
+        addSerializer(ProfilePic.class, new ProfilePicSerializer());
+        addSerializer(CustomerRequest.class, new CustomerRequestSerializer());
+        addDeserializer(Customer.class, new CustomerDeserializer());
+        addDeserializer(ProfilePic.class, new ProfilePicDeserializer());
+        addDeserializer(CustomerRequest.class, new CustomerRequestDeserializer());
+    }
+
+    static final class CustomerSerializer extends StdSerializer<Customer> {
+
+        CustomerSerializer() {
+            super(Customer.class);
+        }
+
+        @Override
+        public void serialize(Customer value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            CustomerJson.writeCustomer(value, generator);
+        }
+    }
+
+    static final class ProfilePicSerializer extends StdSerializer<ProfilePic> {
+
+        ProfilePicSerializer() {
+            super(ProfilePic.class);
+        }
+
+        @Override
+        public void serialize(ProfilePic value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            CustomerJson.writeProfilePic(value, generator);
+        }
+    }
+
+    static final class CustomerRequestSerializer extends StdSerializer<CustomerRequest> {
+
+        CustomerRequestSerializer() {
+            super(CustomerRequest.class);
+        }
+
+        @Override
+        public void serialize(CustomerRequest value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            CustomerJson.writeCustomerRequest(value, generator);
+        }
+    }
+
+    static final class CustomerDeserializer extends StdDeserializer<Customer> {
+
+        CustomerDeserializer() {
+            super(Customer.class);
+        }
+
+        @Override
+        public Customer deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CustomerJson.readCustomer(parser, context);
+        }
+    }
+
+    static final class ProfilePicDeserializer extends StdDeserializer<ProfilePic> {
+
+        ProfilePicDeserializer() {
+            super(ProfilePic.class);
+        }
+
+        @Override
+        public ProfilePic deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CustomerJson.readProfilePic(parser, context);
+        }
+    }
+
+    static final class CustomerRequestDeserializer extends StdDeserializer<CustomerRequest> {
+
+        CustomerRequestDeserializer() {
+            super(CustomerRequest.class);
+        }
+
+        @Override
+        public CustomerRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CustomerJson.readCustomerRequest(parser, context);
+        }
+    }
+}
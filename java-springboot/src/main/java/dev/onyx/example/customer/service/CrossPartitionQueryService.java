@@ -0,0 +1,246 @@
+package dev.onyx.example.customer.service;
+
+import dev.onyx.example.customer.config.AsyncConfig;
+import dev.onyx.example.customer.config.OnyxProperties;
+import dev.onyx.example.customer.dto.CrossPartitionPage;
+import dev.onyx.example.customer.dto.CustomerFilter;
+import dev.onyx.example.customer.dto.CustomerPage;
+import dev.onyx.example.customer.dto.PartitionResult;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.store.CustomerField;
+import dev.onyx.example.customer.store.CustomerStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one list query against several partitions at once and merges the answers. At most
+ * {@code onyx.scatter-gather.parallelism} partitions are queried concurrently; results are folded in as each
+ * partition finishes, so memory stays bounded by the limit rather than by the partitions' sizes. A partition that
+ * fails or misses the time budget is reported in the response instead of failing the request.
+ */
+@Service
+public class CrossPartitionQueryService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final CustomerService customerService;
+    private final CustomerStore store;
+    private final OnyxProperties.ScatterGather settings;
+    private final Executor executor;
+
+    public CrossPartitionQueryService(CustomerService customerService,
+                                      CustomerStore store,
+                                      OnyxProperties properties,
+                                      @Qualifier(AsyncConfig.CUSTOMER_EXECUTOR) Executor executor) {
+        this.customerService = customerService;
+        this.store = store;
+        this.settings = properties.getScatterGather();
+        this.executor = executor;
+    }
+
+    /**
+     * Lists up to {@code limit} customers matching {@code filter} across {@code partitions}, or across the
+     * configured or discovered partitions when none are given. With {@code filter.sort} the result is the global
+     * top {@code limit} in that order; without it, rows are taken in the order partitions answer.
+     */
+    public CrossPartitionPage list(List<String> partitions, Integer limit, CustomerFilter filter) {
+        List<String> targets = targetPartitions(partitions);
+        int effectiveLimit = effectiveLimit(limit);
+        Comparator<Customer> order = filter == null ? null : comparator(filter.getSort());
+        Merger merger = new Merger(effectiveLimit, order);
+
+        Map<String, PartitionResult> outcomes = new LinkedHashMap<>();
+        targets.forEach(partition -> outcomes.put(partition, null));
+        Deque<String> waiting = new ArrayDeque<>(targets);
+        Map<Future<List<Customer>>, String> running = new HashMap<>();
+        CompletionService<List<Customer>> completion = new ExecutorCompletionService<>(executor);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getTimeoutMs());
+
+        try {
+            while (!waiting.isEmpty() || !running.isEmpty()) {
+                while (!waiting.isEmpty() && running.size() < Math.max(1, settings.getParallelism()) && !merger.isSatisfied()) {
+                    String partition = waiting.poll();
+                    try {
+                        running.put(completion.submit(() -> fetch(partition, effectiveLimit, filter)), partition);
+                    } catch (RejectedExecutionException ex) {
+                        outcomes.put(partition, PartitionResult.failed(partition, "executor is saturated"));
+                    }
+                }
+                if (running.isEmpty()) {
+                    break;
+                }
+                Future<List<Customer>> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    break;
+                }
+                String partition = running.remove(done);
+                try {
+                    List<Customer> customers = done.get();
+                    merger.addAll(customers);
+                    outcomes.put(partition, PartitionResult.ok(partition, customers.size()));
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof InvalidQueryException invalid) {
+                        throw invalid;
+                    }
+                    outcomes.put(partition, PartitionResult.failed(partition, describe(ex.getCause())));
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.keySet().forEach(future -> future.cancel(true));
+        }
+
+        boolean timedOut = System.nanoTime() - deadline >= 0;
+        outcomes.replaceAll((partition, outcome) -> {
+            if (outcome != null) {
+                return outcome;
+            }
+            return merger.isSatisfied() || !timedOut ? PartitionResult.skipped(partition)
+                    : PartitionResult.timedOut(partition, settings.getTimeoutMs());
+        });
+        return new CrossPartitionPage(merger.result(), List.copyOf(outcomes.values()));
+    }
+
+    // A partition never needs to contribute more than the global limit, even when results are sorted globally.
+    private List<Customer> fetch(String partition, int limit, CustomerFilter filter) {
+        List<Customer> customers = new ArrayList<>();
+        String pageToken = null;
+        do {
+            int pageSize = Math.min(MAX_PAGE_SIZE, limit - customers.size());
+            CustomerPage page = customerService.list(partition, pageSize, pageToken, filter);
+            customers.addAll(page.customers());
+            pageToken = page.nextPageToken();
+        } while (pageToken != null && customers.size() < limit && !Thread.currentThread().isInterrupted());
+        return customers.size() > limit ? customers.subList(0, limit) : customers;
+    }
+
+    private List<String> targetPartitions(List<String> requested) {
+        List<String> partitions = requested == null ? List.of() : requested.stream()
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .distinct()
+                .toList();
+        if (partitions.isEmpty()) {
+            partitions = settings.getPartitions();
+        }
+        if (partitions.isEmpty()) {
+            partitions = store.partitions();
+        }
+        if (partitions.isEmpty()) {
+            throw new InvalidQueryException("partitions is required; none are configured in onyx.scatter-gather.partitions");
+        }
+        return partitions;
+    }
+
+    private int effectiveLimit(Integer limit) {
+        if (limit == null) {
+            return settings.getDefaultLimit();
+        }
+        if (limit < 1 || limit > settings.getMaxLimit()) {
+            throw new InvalidQueryException("limit must be between 1 and " + settings.getMaxLimit());
+        }
+        return limit;
+    }
+
+    private Comparator<Customer> comparator(List<String> sort) {
+        if (sort == null) {
+            return null;
+        }
+        Comparator<Customer> order = null;
+        for (String expression : sort) {
+            if (!StringUtils.hasText(expression)) {
+                continue;
+            }
+            String trimmed = expression.trim();
+            boolean descending = trimmed.startsWith("-");
+            String name = descending ? trimmed.substring(1) : trimmed;
+            CustomerField field = CustomerField.fromFieldName(name)
+                    .filter(CustomerField::isSortable)
+                    .orElseThrow(() -> new InvalidQueryException("sort does not support " + name));
+            Comparator<Customer> next = Comparator.comparing(customer -> comparable(field.get(customer)),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (descending) {
+                next = next.reversed();
+            }
+            order = order == null ? next : order.thenComparing(next);
+        }
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        return (Comparable<Object>) value;
+    }
+
+    private static String describe(Throwable error) {
+        return StringUtils.hasText(error.getMessage()) ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    /**
+     * Keeps the best {@code limit} rows seen so far: a bounded heap when an order is given, otherwise the first
+     * {@code limit} rows to arrive.
+     */
+    private static final class Merger {
+
+        private final int limit;
+        private final Comparator<Customer> order;
+        private final PriorityQueue<Customer> best;
+        private final List<Customer> arrived;
+
+        Merger(int limit, Comparator<Customer> order) {
+            this.limit = limit;
+            this.order = order;
+            this.best = order == null ? null : new PriorityQueue<>(order.reversed());
+            this.arrived = order == null ? new ArrayList<>() : null;
+        }
+
+        void addAll(List<Customer> customers) {
+            for (Customer customer : customers) {
+                if (order == null) {
+                    if (arrived.size() >= limit) {
+                        return;
+                    }
+                    arrived.add(customer);
+                } else {
+                    best.offer(customer);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+
+        // Only an unordered merge can stop early; an ordered one must hear from every partition.
+        boolean isSatisfied() {
+            return order == null && arrived.size() >= limit;
+        }
+
+        List<Customer> result() {
+            if (order == null) {
+                return arrived;
+            }
+            List<Customer> sorted = new ArrayList<>(best);
+            sorted.sort(order);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.onyx.example.customer.service;
+
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.store.CustomerAggregate;
+import dev.onyx.example.customer.store.CustomerField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes grouped aggregates in a single pass over customers as they are scanned. Memory is bounded by the number
+ * of distinct groups, not the number of rows, so it can run over a whole partition page by page.
+ */
+class CustomerAggregator {
+
+    private final List<CustomerField> groupBy;
+    private final List<CustomerAggregate> aggregates;
+    private final Map<List<Object>, Accumulator[]> groups = new LinkedHashMap<>();
+
+    CustomerAggregator(List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        this.groupBy = groupBy;
+        this.aggregates = aggregates;
+    }
+
+    void accept(Customer customer) {
+        Object[] key = new Object[groupBy.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = groupBy.get(i).get(customer);
+        }
+        Accumulator[] accumulators = groups.computeIfAbsent(Arrays.asList(key), ignored -> newAccumulators());
+        for (int i = 0; i < accumulators.length; i++) {
+            CustomerField field = aggregates.get(i).field();
+            accumulators[i].add(field == null ? Boolean.TRUE : field.get(customer));
+        }
+    }
+
+    /**
+     * One row per group, keyed like {@link dev.onyx.example.customer.store.CustomerStore#aggregate}. Without
+     * {@code groupBy} an empty scan still yields a single row so {@code count(*)} reports zero.
+     */
+    List<Map<String, Object>> rows() {
+        if (groups.isEmpty() && groupBy.isEmpty()) {
+            groups.put(List.of(), newAccumulators());
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(groups.size());
+        groups.forEach((key, accumulators) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                row.put(groupBy.get(i).getFieldName(), key.get(i));
+            }
+            for (int i = 0; i < accumulators.length; i++) {
+                row.put(aggregates.get(i).alias(), accumulators[i].result(aggregates.get(i)));
+            }
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    private Accumulator[] newAccumulators() {
+        Accumulator[] accumulators = new Accumulator[aggregates.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = new Accumulator();
+        }
+        return accumulators;
+    }
+
+    private static final class Accumulator {
+
+        private long count;
+        private double sum;
+        private Comparable<Object> min;
+        private Comparable<Object> max;
+
+        @SuppressWarnings("unchecked")
+        void add(Object value) {
+            if (value == null) {
+                return;
+            }
+            count++;
+            if (value instanceof Number number) {
+                sum += number.doubleValue();
+            }
+            if (value instanceof Comparable<?> comparable) {
+                Comparable<Object> candidate = (Comparable<Object>) comparable;
+                if (min == null || candidate.compareTo(min) < 0) {
+                    min = candidate;
+                }
+                if (max == null || candidate.compareTo(max) > 0) {
+                    max = candidate;
+                }
+            }
+        }
+
+        Object result(CustomerAggregate aggregate) {
+            return switch (aggregate.function()) {
+                case COUNT -> count;
+                case SUM -> aggregate.field() == CustomerField.AGE ? (Object) (long) sum : sum;
+                case AVG -> count == 0 ? null : sum / count;
+                case MIN -> min;
+                case MAX -> max;
+            };
+        }
+    }
+}
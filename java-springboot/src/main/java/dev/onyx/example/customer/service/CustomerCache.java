@@ -0,0 +1,205 @@
+package dev.onyx.example.customer.service;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, in-process cache of customers keyed by (partition, customerId).
+ * Entries expire after a fixed TTL and the least recently used entry is evicted once the
+ * cache is full. A disabled cache never stores anything and reports every lookup as a miss.
+ * <p>
+ * Expired entries are kept for a further {@code staleIfErrorMs} so {@link #getStale} can answer
+ * when Onyx cannot; {@link #get} never returns them. They are dropped when a lookup finds them past that
+ * window or when they become the least recently used, so no write ever scans the cache.
+ * <p>
+ * A read that misses loads from Onyx and puts the result back with {@link #putIfUnchanged}, passing the
+ * {@link #generation} it saw before loading. Every write to the key in between moves the generation on, so a
+ * slow read can never put back a customer that a concurrent write has already replaced or removed.
+ */
+public class CustomerCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long staleIfErrorMillis;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() <= maxSize) {
+                return false;
+            }
+            evictions.increment();
+            return true;
+        }
+    };
+    // Write counters striped by key hash; guarded by entries. A shared stripe only costs the odd skipped put-back.
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    public CustomerCache(boolean enabled, int maxSize, long ttlMillis) {
+        this(enabled, maxSize, ttlMillis, 0);
+    }
+
+    public CustomerCache(boolean enabled, int maxSize, long ttlMillis, long staleIfErrorMillis) {
+        this.enabled = enabled && maxSize > 0 && ttlMillis > 0;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.staleIfErrorMillis = Math.max(0, staleIfErrorMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<Customer> get(String partition, String customerId) {
+        if (!enabled) {
+            misses.increment();
+            return Optional.empty();
+        }
+        Key key = new Key(partition, customerId);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > now) {
+                hits.increment();
+                return Optional.of(entry.customer());
+            }
+            if (entry != null && entry.expiresAt() + staleIfErrorMillis <= now) {
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the cached customer even if it has expired, as long as it is no more than {@code staleIfErrorMs}
+     * past its TTL. Meant for answering reads while Onyx is unavailable.
+     */
+    public Optional<Customer> getStale(String partition, String customerId) {
+        if (!enabled || staleIfErrorMillis == 0) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(new Key(partition, customerId));
+            if (entry == null || entry.expiresAt() + staleIfErrorMillis <= System.currentTimeMillis()) {
+                return Optional.empty();
+            }
+            staleHits.increment();
+            return Optional.of(entry.customer());
+        }
+    }
+
+    /**
+     * Caches a customer that was just written.
+     */
+    public void put(String partition, Customer customer) {
+        if (!enabled || customer == null || customer.getCustomerId() == null) {
+            return;
+        }
+        Key key = new Key(partition, customer.getCustomerId());
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (entries) {
+            generations[stripe(key)]++;
+            entries.put(key, new Entry(customer, expiresAt));
+        }
+    }
+
+    /**
+     * The key's write generation; take it before loading a customer and hand it to {@link #putIfUnchanged}.
+     */
+    public long generation(String partition, String customerId) {
+        synchronized (entries) {
+            return generations[stripe(new Key(partition, customerId))];
+        }
+    }
+
+    /**
+     * Caches a customer loaded from Onyx, unless the key was written or invalidated since {@code generation} was
+     * taken. Returns whether the customer was cached.
+     */
+    public boolean putIfUnchanged(String partition, Customer customer, long generation) {
+        if (!enabled || customer == null || customer.getCustomerId() == null) {
+            return false;
+        }
+        Key key = new Key(partition, customer.getCustomerId());
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (entries) {
+            if (generations[stripe(key)] != generation) {
+                return false;
+            }
+            entries.put(key, new Entry(customer, expiresAt));
+            return true;
+        }
+    }
+
+    public void invalidate(String partition, String customerId) {
+        if (!enabled) {
+            return;
+        }
+        Key key = new Key(partition, customerId);
+        synchronized (entries) {
+            generations[stripe(key)]++;
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drops every cached customer that belongs to the given partition.
+     */
+    public void invalidatePartition(String partition) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            for (int i = 0; i < generations.length; i++) {
+                generations[i]++;
+            }
+            entries.keySet().removeIf(key -> Objects.equals(key.partition(), partition));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+
+    private static int stripe(Key key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private record Key(String partition, String customerId) {
+    }
+
+    private record Entry(Customer customer, long expiresAt) {
+    }
+}
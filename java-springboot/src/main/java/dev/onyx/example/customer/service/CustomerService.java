@@ -1,39 +1,66 @@
 package dev.onyx.example.customer.service;
 
-import com.onyx.cloud.api.DeleteOptions;
-import com.onyx.cloud.api.FindOptions;
-import com.onyx.cloud.api.IQueryResults;
-import com.onyx.cloud.api.SaveOptions;
-import com.onyx.cloud.impl.QueryBuilder;
-import com.onyx.cloud.impl.OnyxClient;
 import dev.onyx.example.customer.config.OnyxProperties;
+import dev.onyx.example.customer.dto.BatchCustomerRequest;
+import dev.onyx.example.customer.dto.BatchItemResult;
+import dev.onyx.example.customer.dto.BatchResult;
+import dev.onyx.example.customer.dto.BulkDeleteItem;
+import dev.onyx.example.customer.dto.BulkDeleteRequest;
+import dev.onyx.example.customer.dto.BulkDeleteResult;
+import dev.onyx.example.customer.dto.CustomerFilter;
+import dev.onyx.example.customer.dto.CustomerPage;
+import dev.onyx.example.customer.dto.CustomerPatchRequest;
 import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.dto.MultiGetItem;
 import dev.onyx.example.customer.dto.ProfilePicRequest;
 import dev.onyx.example.customer.model.Customer;
 import dev.onyx.example.customer.model.ProfilePic;
-import kotlin.jvm.JvmClassMappingKt;
-import kotlin.reflect.KClass;
+import dev.onyx.example.customer.store.CustomerAggregate;
+import dev.onyx.example.customer.store.CustomerField;
+import dev.onyx.example.customer.store.CustomerQuery;
+import dev.onyx.example.customer.store.CustomerQueryPage;
+import dev.onyx.example.customer.store.CustomerStore;
+import dev.onyx.example.customer.store.OnyxUnavailableException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 public class CustomerService {
 
-    private static final KClass<Customer> CUSTOMER_KCLASS = JvmClassMappingKt.getKotlinClass(Customer.class);
+    private static final char PAGE_TOKEN_SEPARATOR = '\n';
+    private static final int AGGREGATION_PAGE_SIZE = 1000;
 
-    private final OnyxClient db;
+    private final CustomerStore store;
     private final OnyxProperties properties;
+    private final CustomerCache cache;
+    private final Validator validator;
 
-    public CustomerService(OnyxClient db, OnyxProperties properties) {
-        this.db = db;
+    public CustomerService(CustomerStore store, OnyxProperties properties, CustomerCache cache, Validator validator) {
+        this.store = store;
         this.properties = properties;
+        this.cache = cache;
+        this.validator = validator;
     }
 
     public Customer create(CustomerRequest request) {
@@ -41,64 +68,629 @@ public class CustomerService {
         return save(customer);
     }
 
+    /**
+     * Creates or replaces every valid request, sending them to Onyx in chunks of {@code onyx.batch.chunk-size}.
+     * Entries without a {@code customerId} are created under a new id. For entries with one, the chunk first looks
+     * up which of those ids exist, with one query per partition, so each is reported as created or updated and a
+     * replaced customer keeps its {@code dateCreated}. Invalid entries are reported without being sent; a failed
+     * chunk marks only its own entries as failed.
+     */
+    public BatchResult saveAll(List<BatchCustomerRequest> requests) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Customer> chunk = new ArrayList<>();
+        List<Integer> chunkIndexes = new ArrayList<>();
+        int chunkSize = Math.max(1, properties.getBatch().getChunkSize());
+        String createdAt = Instant.now().toString();
+
+        for (int i = 0; i < requests.size(); i++) {
+            BatchCustomerRequest request = requests.get(i);
+            List<String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = BatchItemResult.invalid(i, errors);
+                continue;
+            }
+            // A null dateCreated marks a caller-supplied id whose stored record, if any, has yet to be looked up.
+            chunk.add(StringUtils.hasText(request.getCustomerId())
+                    ? toCustomer(request.getCustomerId(), null, request)
+                    : toCustomer(UUID.randomUUID().toString(), createdAt, request));
+            chunkIndexes.add(i);
+            if (chunk.size() == chunkSize) {
+                saveChunk(chunk, chunkIndexes, results);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, chunkIndexes, results);
+        }
+        return BatchResult.of(List.of(results));
+    }
+
     public Optional<Customer> get(String customerId, String partition) {
         return get(customerId, partition, null);
     }
 
+    /**
+     * Looks a customer up in the cache, then in Onyx. While Onyx is unavailable an expired cache entry is served
+     * if it is within {@code onyx.cache.stale-if-error-ms}; otherwise the {@link OnyxUnavailableException} propagates.
+     */
     public Optional<Customer> get(String customerId, String partition, String fallbackPartition) {
         String targetPartition = resolvePartition(partition, fallbackPartition);
-        // Passing null avoids emitting an empty resolver list which the API rejects.
-        FindOptions options = new FindOptions(targetPartition, null);
-        Customer found = db.findById(CUSTOMER_KCLASS, customerId, options);
+        Optional<Customer> cached = cache.get(targetPartition, customerId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        long generation = cache.generation(targetPartition, customerId);
+        Customer found;
+        try {
+            found = store.findById(customerId, targetPartition);
+        } catch (OnyxUnavailableException ex) {
+            return Optional.of(cache.getStale(targetPartition, customerId).orElseThrow(() -> ex));
+        }
+        cache.putIfUnchanged(targetPartition, found, generation);
         return Optional.ofNullable(found);
     }
 
-    public List<Customer> list(String partition, Integer pageSize) {
+    /**
+     * Resolves many ids at once: cache hits are served locally and the rest are loaded with a single {@code in}
+     * query. Results follow the order of {@code customerIds}, with misses marked as not found. If Onyx is
+     * unavailable the request is answered from stale cache entries only when every missing id has one.
+     */
+    public List<MultiGetItem> getAll(List<String> customerIds, String partition) {
         String targetPartition = resolvePartition(partition, null);
-        QueryBuilder builder = (QueryBuilder) db.from("Customer");
-        builder.setType(CUSTOMER_KCLASS);
+        Map<String, Customer> resolved = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String customerId : customerIds) {
+            if (resolved.containsKey(customerId) || missing.contains(customerId)) {
+                continue;
+            }
+            cache.get(targetPartition, customerId).ifPresentOrElse(
+                    customer -> resolved.put(customerId, customer),
+                    () -> missing.add(customerId));
+        }
+        if (!missing.isEmpty()) {
+            Map<String, Long> generations = new HashMap<>();
+            missing.forEach(customerId -> generations.put(customerId, cache.generation(targetPartition, customerId)));
+            try {
+                for (Customer customer : store.findByIds(missing, targetPartition)) {
+                    resolved.put(customer.getCustomerId(), customer);
+                    Long generation = generations.get(customer.getCustomerId());
+                    if (generation != null) {
+                        cache.putIfUnchanged(targetPartition, customer, generation);
+                    }
+                }
+            } catch (OnyxUnavailableException ex) {
+                for (String customerId : missing) {
+                    resolved.put(customerId, cache.getStale(targetPartition, customerId).orElseThrow(() -> ex));
+                }
+            }
+        }
+        return customerIds.stream()
+                .map(customerId -> new MultiGetItem(customerId, resolved.containsKey(customerId), resolved.get(customerId)))
+                .toList();
+    }
+
+    public List<Customer> list(String partition, Integer pageSize) {
+        return list(partition, pageSize, null).customers();
+    }
+
+    /**
+     * Returns the page identified by {@code pageToken}, or the first page when it is empty. The token handed back
+     * in {@link CustomerPage#nextPageToken()} wraps the Onyx cursor, so every page costs the same regardless of depth.
+     */
+    public CustomerPage list(String partition, Integer pageSize, String pageToken) {
+        return list(partition, pageSize, pageToken, null);
+    }
 
-        if (StringUtils.hasText(targetPartition)) {
-            builder.inPartition(targetPartition);
+    /**
+     * Like {@link #list(String, Integer, String)}, with predicates, projection and ordering from {@code filter}
+     * evaluated by the store so only matching rows and requested columns come back.
+     */
+    public CustomerPage list(String partition, Integer pageSize, String pageToken, CustomerFilter filter) {
+        String targetPartition = resolvePartition(partition, null);
+        CustomerQuery query = CustomerQuery.inPartition(targetPartition).pageSize(pageSize);
+        if (filter != null) {
+            applyFilter(query, filter);
         }
-        if (pageSize != null && pageSize > 0) {
-            builder.pageSize(pageSize);
+        CustomerQueryPage results;
+        if (StringUtils.hasText(pageToken)) {
+            query.pageToken(decodePageToken(pageToken, targetPartition));
+            try {
+                results = store.query(query);
+            } catch (IllegalArgumentException ex) {
+                // The envelope was ours but the cursor inside it was not, e.g. an unsorted token replayed on a sorted
+                // query, or one issued for a different sort order.
+                throw new InvalidPageTokenException("pageToken does not match this query");
+            }
+        } else {
+            results = store.query(query);
+        }
+        String nextPage = results.nextPage();
+        String nextPageToken = StringUtils.hasText(nextPage) ? encodePageToken(targetPartition, nextPage) : null;
+        return new CustomerPage(results.customers(), nextPageToken);
+    }
+
+    /**
+     * Walks the whole partition one page at a time, handing each customer to {@code consumer} as its
+     * page arrives. Only a single page is ever held in memory.
+     */
+    public void forEach(String partition, int pageSize, Consumer<Customer> consumer) {
+        String targetPartition = resolvePartition(partition, null);
+        String pageToken = null;
+        do {
+            CustomerQueryPage page = store.query(CustomerQuery.inPartition(targetPartition)
+                    .pageSize(pageSize)
+                    .pageToken(pageToken));
+            page.customers().forEach(consumer);
+            pageToken = page.nextPage();
+        } while (StringUtils.hasText(pageToken));
+    }
+
+    /**
+     * Aggregates the customers of a partition that match {@code filter}, one row per distinct {@code groupBy}
+     * combination. {@code metrics} entries are {@code count} or {@code function:field}, e.g. {@code avg:age}.
+     * The store evaluates the aggregation when it can; otherwise the matching customers are scanned page by page
+     * with only the needed fields selected, so memory grows with the number of groups rather than rows.
+     */
+    public List<Map<String, Object>> stats(String partition, List<String> groupBy, List<String> metrics, CustomerFilter filter) {
+        List<CustomerField> groupFields = groupBy == null ? List.of() : groupBy.stream()
+                .filter(StringUtils::hasText)
+                .map(name -> groupField(name.trim()))
+                .distinct()
+                .toList();
+        List<CustomerAggregate> aggregates = metrics == null ? List.of() : metrics.stream()
+                .filter(StringUtils::hasText)
+                .map(this::aggregate)
+                .distinct()
+                .toList();
+        if (aggregates.isEmpty()) {
+            aggregates = List.of(new CustomerAggregate(CustomerAggregate.Function.COUNT, null));
         }
 
-        IQueryResults<?> rawResults = builder.list();
-        @SuppressWarnings("unchecked")
-        IQueryResults<Customer> results = (IQueryResults<Customer>) rawResults;
-        return new ArrayList<>(results);
+        String targetPartition = resolvePartition(partition, null);
+        CustomerQuery query = CustomerQuery.inPartition(targetPartition);
+        if (filter != null) {
+            applyPredicates(query, filter);
+        }
+        try {
+            return store.aggregate(query, groupFields, aggregates);
+        } catch (UnsupportedOperationException ex) {
+            return scanAggregate(query, groupFields, aggregates);
+        }
     }
 
+    /**
+     * Replaces every field except {@code dateCreated} with a single conditional update, falling back to a create
+     * when the customer does not exist. A successful update is returned as written, without reading the record back,
+     * so {@code dateCreated} is only filled in when the cache holds it; moving a customer to another partition still
+     * reads the record first.
+     * <p>
+     * The update count is only trusted when it is non-zero: a store that counts changed rather than matched rows
+     * reports zero for a replace that changed nothing, so zero is confirmed with a one-field lookup before a new
+     * record (and a new {@code dateCreated}) is written.
+     */
     public Customer update(String customerId, CustomerRequest request, String partition) {
         String targetPartition = resolvePartition(partition, request.getCountryCode());
-        Optional<Customer> current = get(customerId, targetPartition, request.getCountryCode());
-        String createdAt = current.map(Customer::getDateCreated).orElseGet(() -> Instant.now().toString());
+        if (!targetPartition.equals(request.getCountryCode())) {
+            return replaceAcrossPartitions(customerId, request, targetPartition);
+        }
+
+        String createdAt = cache.get(targetPartition, customerId).map(Customer::getDateCreated).orElse(null);
         Customer customer = toCustomer(customerId, createdAt, request);
-        return save(customer);
+        int updated = store.update(customerId, targetPartition, toChanges(customer));
+        if (updated == 0) {
+            Optional<Customer> stored = storedDateCreated(customerId, targetPartition);
+            if (stored.isEmpty()) {
+                customer.setDateCreated(Instant.now().toString());
+                return save(customer);
+            }
+            customer.setDateCreated(stored.get().getDateCreated());
+        }
+        if (customer.getDateCreated() != null) {
+            cache.put(targetPartition, customer);
+        } else {
+            // Caching it without dateCreated would hide the stored value from later reads.
+            cache.invalidate(targetPartition, customerId);
+        }
+        return customer;
+    }
+
+    /**
+     * Writes only the fields present in {@code request}. Returns false when the customer does not exist.
+     */
+    public boolean patch(String customerId, CustomerPatchRequest request, String partition) {
+        String targetPartition = resolvePartition(partition, null);
+        if (StringUtils.hasText(request.getCountryCode()) && !request.getCountryCode().equals(targetPartition)) {
+            Optional<Customer> current = get(customerId, targetPartition);
+            if (current.isEmpty()) {
+                return false;
+            }
+            Customer customer = applyPatch(copyOf(current.get()), request);
+            cache.invalidate(targetPartition, customerId);
+            save(customer);
+            return true;
+        }
+
+        Map<String, Object> changes = toChanges(request);
+        if (changes.isEmpty()) {
+            return get(customerId, targetPartition).isPresent();
+        }
+        int updated = store.update(customerId, targetPartition, changes);
+        cache.invalidate(targetPartition, customerId);
+        return updated > 0;
     }
 
     public boolean delete(String customerId, String partition) {
         String targetPartition = resolvePartition(partition, null);
-        // Passing null relationships avoids emitting an empty array the API may reject.
-        DeleteOptions options = new DeleteOptions(targetPartition, null);
         // Some environments return false even when the delete succeeds; treat any non-exception as success.
         try {
-            db.delete("Customer", customerId, options);
+            store.delete(customerId, targetPartition);
             return true;
+        } catch (OnyxUnavailableException ex) {
+            throw ex;
         } catch (RuntimeException ex) {
             return false;
+        } finally {
+            cache.invalidate(targetPartition, customerId);
+        }
+    }
+
+    /**
+     * Deletes the listed ids, or every customer matching {@code where}, in one partition. Ids are looked up and
+     * deleted in chunks of {@code onyx.batch.chunk-size}, one {@code in} query each way, and reported one by one; a
+     * failed chunk marks only its own ids as failed. A predicate delete runs as a single server-side delete and
+     * reports the number removed.
+     */
+    public BulkDeleteResult deleteAll(BulkDeleteRequest request) {
+        String targetPartition = resolvePartition(request.getCountryCode(), null);
+        boolean hasIds = request.getCustomerIds() != null && !request.getCustomerIds().isEmpty();
+        boolean hasPredicate = request.getWhere() != null && hasPredicate(request.getWhere());
+        if (hasIds == hasPredicate) {
+            throw new InvalidQueryException("Provide either customerIds or a where predicate");
+        }
+        if (hasPredicate) {
+            if (request.getWhere().getFields() != null || request.getWhere().getSort() != null) {
+                throw new InvalidQueryException("where does not support fields or sort");
+            }
+            CustomerQuery query = CustomerQuery.inPartition(targetPartition);
+            applyPredicates(query, request.getWhere());
+            try {
+                return BulkDeleteResult.matched(store.deleteMatching(query));
+            } finally {
+                cache.invalidatePartition(targetPartition);
+            }
+        }
+
+        List<String> customerIds = List.copyOf(new LinkedHashSet<>(request.getCustomerIds()));
+        Map<String, BulkDeleteItem> outcomes = new HashMap<>();
+        int chunkSize = Math.max(1, properties.getBatch().getChunkSize());
+        for (int from = 0; from < customerIds.size(); from += chunkSize) {
+            List<String> chunk = customerIds.subList(from, Math.min(customerIds.size(), from + chunkSize));
+            deleteChunk(chunk, targetPartition, outcomes);
+        }
+        return BulkDeleteResult.of(customerIds.stream().map(outcomes::get).toList());
+    }
+
+    // The record moves partitions on save, so the old key must not keep serving it.
+    private Customer replaceAcrossPartitions(String customerId, CustomerRequest request, String targetPartition) {
+        Optional<Customer> current = get(customerId, targetPartition, request.getCountryCode());
+        String createdAt = current.map(Customer::getDateCreated).orElseGet(() -> Instant.now().toString());
+        Customer customer = toCustomer(customerId, createdAt, request);
+        cache.invalidate(targetPartition, customerId);
+        return save(customer);
+    }
+
+    // Only dateCreated is selected; the rest of the record was just written by the caller.
+    private Optional<Customer> storedDateCreated(String customerId, String targetPartition) {
+        CustomerQuery query = CustomerQuery.inPartition(targetPartition)
+                .customerIds(List.of(customerId))
+                .select(List.of(CustomerField.CUSTOMER_ID, CustomerField.DATE_CREATED))
+                .pageSize(1);
+        return store.query(query).customers().stream().findFirst();
+    }
+
+    private Map<String, Object> toChanges(Customer customer) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("firstName", customer.getFirstName());
+        changes.put("lastName", customer.getLastName());
+        changes.put("email", customer.getEmail());
+        changes.put("age", customer.getAge());
+        changes.put("isActive", customer.getIsActive());
+        changes.put("balance", customer.getBalance());
+        changes.put("profilePic", customer.getProfilePic());
+        changes.put("countryCode", customer.getCountryCode());
+        return changes;
+    }
+
+    private Map<String, Object> toChanges(CustomerPatchRequest request) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfPresent(changes, "firstName", request.getFirstName());
+        putIfPresent(changes, "lastName", request.getLastName());
+        putIfPresent(changes, "email", request.getEmail());
+        putIfPresent(changes, "age", request.getAge());
+        putIfPresent(changes, "isActive", request.getIsActive());
+        putIfPresent(changes, "balance", request.getBalance());
+        putIfPresent(changes, "profilePic", toProfilePic(request.getProfilePic()));
+        putIfPresent(changes, "countryCode", request.getCountryCode());
+        return changes;
+    }
+
+    private void putIfPresent(Map<String, Object> changes, String field, Object value) {
+        if (value != null) {
+            changes.put(field, value);
         }
     }
 
+    private Customer applyPatch(Customer customer, CustomerPatchRequest request) {
+        toChanges(request).forEach((field, value) -> {
+            switch (field) {
+                case "firstName" -> customer.setFirstName((String) value);
+                case "lastName" -> customer.setLastName((String) value);
+                case "email" -> customer.setEmail((String) value);
+                case "age" -> customer.setAge((Integer) value);
+                case "isActive" -> customer.setIsActive((Boolean) value);
+                case "balance" -> customer.setBalance((Float) value);
+                case "profilePic" -> customer.setProfilePic((ProfilePic) value);
+                case "countryCode" -> customer.setCountryCode((String) value);
+                default -> throw new IllegalStateException("Unexpected field " + field);
+            }
+        });
+        return customer;
+    }
+
+    // Cached instances are shared, so patches work on a copy.
+    private Customer copyOf(Customer customer) {
+        return new Customer(
+                customer.getCustomerId(),
+                customer.getFirstName(),
+                customer.getLastName(),
+                customer.getEmail(),
+                customer.getAge(),
+                customer.getDateCreated(),
+                customer.getIsActive(),
+                customer.getBalance(),
+                customer.getProfilePic(),
+                customer.getCountryCode()
+        );
+    }
+
     private Customer save(Customer customer) {
-        SaveOptions options = new SaveOptions(Collections.emptyList());
-        db.save(CUSTOMER_KCLASS, customer, options);
+        store.save(customer);
+        cache.put(resolvePartition(customer.getCountryCode(), null), customer);
         return customer;
     }
 
-    private Customer toCustomer(String customerId, String createdAt, CustomerRequest request) {
+    private void applyFilter(CustomerQuery query, CustomerFilter filter) {
+        applyPredicates(query, filter);
+        if (filter.getFields() != null) {
+            query.select(filter.getFields().stream()
+                    .filter(StringUtils::hasText)
+                    .map(name -> field(name.trim(), "fields"))
+                    .distinct()
+                    .toList());
+        }
+        if (filter.getSort() != null) {
+            query.orderBy(filter.getSort().stream()
+                    .filter(StringUtils::hasText)
+                    .map(this::sortOrder)
+                    .toList());
+        }
+    }
+
+    private void applyPredicates(CustomerQuery query, CustomerFilter filter) {
+        requireOrdered("age", filter.getMinAge(), filter.getMaxAge());
+        requireOrdered("balance", filter.getMinBalance(), filter.getMaxBalance());
+        query.active(filter.getIsActive())
+                .ageBetween(filter.getMinAge(), filter.getMaxAge())
+                .balanceBetween(filter.getMinBalance(), filter.getMaxBalance());
+    }
+
+    private List<Map<String, Object>> scanAggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        Set<CustomerField> fields = new LinkedHashSet<>(groupBy);
+        aggregates.stream().map(CustomerAggregate::field).filter(Objects::nonNull).forEach(fields::add);
+        if (fields.isEmpty()) {
+            fields.add(CustomerField.CUSTOMER_ID);
+        }
+        query.select(List.copyOf(fields)).pageSize(AGGREGATION_PAGE_SIZE);
+
+        CustomerAggregator aggregator = new CustomerAggregator(groupBy, aggregates);
+        String pageToken = null;
+        do {
+            CustomerQueryPage page = store.query(query.pageToken(pageToken));
+            page.customers().forEach(aggregator::accept);
+            pageToken = page.nextPage();
+        } while (StringUtils.hasText(pageToken));
+        return aggregator.rows();
+    }
+
+    private CustomerField groupField(String name) {
+        CustomerField field = field(name, "groupBy");
+        if (!field.isSortable()) {
+            throw new InvalidQueryException("groupBy does not support " + field.getFieldName());
+        }
+        return field;
+    }
+
+    // "count", "count:field" or "function:field"; sum and avg only apply to numeric fields.
+    private CustomerAggregate aggregate(String expression) {
+        String trimmed = expression.trim();
+        int separator = trimmed.indexOf(':');
+        String functionName = separator < 0 ? trimmed : trimmed.substring(0, separator);
+        CustomerAggregate.Function function = Arrays.stream(CustomerAggregate.Function.values())
+                .filter(candidate -> candidate.name().equalsIgnoreCase(functionName))
+                .findFirst()
+                .orElseThrow(() -> new InvalidQueryException("metrics contains unknown function " + functionName));
+        if (separator < 0) {
+            if (function != CustomerAggregate.Function.COUNT) {
+                throw new InvalidQueryException("metrics entry " + trimmed + " needs a field, e.g. " + functionName + ":age");
+            }
+            return new CustomerAggregate(function, null);
+        }
+        CustomerField field = field(trimmed.substring(separator + 1).trim(), "metrics");
+        boolean numeric = field == CustomerField.AGE || field == CustomerField.BALANCE;
+        if ((function == CustomerAggregate.Function.SUM || function == CustomerAggregate.Function.AVG) && !numeric) {
+            throw new InvalidQueryException(functionName + " requires a numeric field, not " + field.getFieldName());
+        }
+        if (!field.isSortable()) {
+            throw new InvalidQueryException("metrics does not support " + field.getFieldName());
+        }
+        return new CustomerAggregate(function, field);
+    }
+
+    private CustomerQuery.Sort sortOrder(String expression) {
+        String trimmed = expression.trim();
+        boolean descending = trimmed.startsWith("-");
+        CustomerField field = field(descending ? trimmed.substring(1) : trimmed, "sort");
+        if (!field.isSortable()) {
+            throw new InvalidQueryException("sort does not support " + field.getFieldName());
+        }
+        return new CustomerQuery.Sort(field, descending);
+    }
+
+    private CustomerField field(String name, String parameter) {
+        return CustomerField.fromFieldName(name)
+                .orElseThrow(() -> new InvalidQueryException(parameter + " contains unknown field " + name));
+    }
+
+    private <T extends Comparable<T>> void requireOrdered(String field, T min, T max) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidQueryException("min" + StringUtils.capitalize(field) + " must not exceed max" + StringUtils.capitalize(field));
+        }
+    }
+
+    // Tokens carry the partition they were issued for so a cursor cannot be replayed against another partition.
+    private String encodePageToken(String targetPartition, String onyxToken) {
+        String raw = (targetPartition == null ? "" : targetPartition) + PAGE_TOKEN_SEPARATOR + onyxToken;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodePageToken(String pageToken, String targetPartition) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageTokenException("pageToken is malformed");
+        }
+        int separator = raw.indexOf(PAGE_TOKEN_SEPARATOR);
+        if (separator < 0 || separator == raw.length() - 1) {
+            throw new InvalidPageTokenException("pageToken is malformed");
+        }
+        String tokenPartition = raw.substring(0, separator);
+        if (!tokenPartition.equals(targetPartition == null ? "" : targetPartition)) {
+            throw new InvalidPageTokenException("pageToken was issued for a different partition");
+        }
+        return raw.substring(separator + 1);
+    }
+
+    private void saveChunk(List<Customer> chunk, List<Integer> chunkIndexes, BatchItemResult[] results) {
+        try {
+            Set<Customer> replaced = resolveDateCreated(chunk);
+            store.saveAll(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                Customer customer = chunk.get(i);
+                int index = chunkIndexes.get(i);
+                cache.put(resolvePartition(customer.getCountryCode(), null), customer);
+                results[index] = replaced.contains(customer)
+                        ? BatchItemResult.updated(index, customer.getCustomerId())
+                        : BatchItemResult.created(index, customer.getCustomerId());
+            }
+        } catch (RuntimeException ex) {
+            String reason = StringUtils.hasText(ex.getMessage()) ? ex.getMessage() : ex.getClass().getSimpleName();
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunkIndexes.get(i)] = BatchItemResult.failed(chunkIndexes.get(i), chunk.get(i).getCustomerId(), reason);
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    // Fills in dateCreated for the chunk's caller-supplied ids: the stored value when the customer exists, now
+    // otherwise. Returns the customers that replace an existing record.
+    private Set<Customer> resolveDateCreated(List<Customer> chunk) {
+        Map<String, List<Customer>> pendingByPartition = new LinkedHashMap<>();
+        for (Customer customer : chunk) {
+            if (customer.getDateCreated() == null) {
+                pendingByPartition.computeIfAbsent(resolvePartition(customer.getCountryCode(), null), key -> new ArrayList<>())
+                        .add(customer);
+            }
+        }
+        Set<Customer> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+        String now = Instant.now().toString();
+        for (Map.Entry<String, List<Customer>> pending : pendingByPartition.entrySet()) {
+            Set<String> customerIds = new LinkedHashSet<>();
+            pending.getValue().forEach(customer -> customerIds.add(customer.getCustomerId()));
+            Map<String, String> stored = new HashMap<>();
+            CustomerQuery lookup = CustomerQuery.inPartition(pending.getKey())
+                    .customerIds(customerIds)
+                    .select(List.of(CustomerField.CUSTOMER_ID, CustomerField.DATE_CREATED))
+                    .pageSize(customerIds.size());
+            String pageToken = null;
+            do {
+                CustomerQueryPage page = store.query(lookup.pageToken(pageToken));
+                page.customers().forEach(customer -> stored.put(customer.getCustomerId(), customer.getDateCreated()));
+                pageToken = page.nextPage();
+            } while (StringUtils.hasText(pageToken));
+
+            for (Customer customer : pending.getValue()) {
+                if (stored.containsKey(customer.getCustomerId())) {
+                    customer.setDateCreated(stored.get(customer.getCustomerId()));
+                    replaced.add(customer);
+                } else {
+                    customer.setDateCreated(now);
+                }
+            }
+        }
+        return replaced;
+    }
+
+    private void deleteChunk(List<String> chunk, String targetPartition, Map<String, BulkDeleteItem> outcomes) {
+        Set<String> existing = new HashSet<>();
+        try {
+            CustomerQuery lookup = CustomerQuery.inPartition(targetPartition)
+                    .customerIds(chunk)
+                    .select(List.of(CustomerField.CUSTOMER_ID))
+                    .pageSize(chunk.size());
+            String pageToken = null;
+            do {
+                CustomerQueryPage page = store.query(lookup.pageToken(pageToken));
+                page.customers().forEach(customer -> existing.add(customer.getCustomerId()));
+                pageToken = page.nextPage();
+            } while (StringUtils.hasText(pageToken));
+
+            if (!existing.isEmpty()) {
+                store.deleteMatching(CustomerQuery.inPartition(targetPartition).customerIds(existing));
+            }
+            for (String customerId : chunk) {
+                outcomes.put(customerId, existing.contains(customerId)
+                        ? BulkDeleteItem.deleted(customerId)
+                        : BulkDeleteItem.notFound(customerId));
+            }
+        } catch (RuntimeException ex) {
+            String reason = StringUtils.hasText(ex.getMessage()) ? ex.getMessage() : ex.getClass().getSimpleName();
+            for (String customerId : chunk) {
+                outcomes.put(customerId, BulkDeleteItem.failed(customerId, reason));
+            }
+        } finally {
+            chunk.forEach(customerId -> cache.invalidate(targetPartition, customerId));
+        }
+    }
+
+    private static boolean hasPredicate(CustomerFilter filter) {
+        return filter.getIsActive() != null
+                || filter.getMinAge() != null || filter.getMaxAge() != null
+                || filter.getMinBalance() != null || filter.getMaxBalance() != null;
+    }
+
+    private List<String> validate(CustomerRequest request) {
+        if (request == null) {
+            return List.of("request must not be null");
+        }
+        Set<ConstraintViolation<CustomerRequest>> violations = validator.validate(request);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    Customer toCustomer(String customerId, String createdAt, CustomerRequest request) {
         ProfilePic profilePic = toProfilePic(request.getProfilePic());
         Customer customer = new Customer(
                 customerId,
@@ -115,14 +707,14 @@ public class CustomerService {
         return customer;
     }
 
-    private ProfilePic toProfilePic(ProfilePicRequest request) {
+    ProfilePic toProfilePic(ProfilePicRequest request) {
         if (request == null) {
             return null;
         }
         return new ProfilePic(request.getUrl(), request.getContentType(), request.getSizeBytes());
     }
 
-    private String resolvePartition(String provided, String fallback) {
+    String resolvePartition(String provided, String fallback) {
         if (StringUtils.hasText(provided)) {
             return provided;
         }
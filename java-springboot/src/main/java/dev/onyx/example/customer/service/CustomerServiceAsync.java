@@ -0,0 +1,49 @@
+package dev.onyx.example.customer.service;
+
+import dev.onyx.example.customer.config.AsyncConfig;
+import dev.onyx.example.customer.dto.CustomerPatchRequest;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.model.Customer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking facade over {@link CustomerService}. Each call runs on the dedicated customer executor, so callers
+ * can start several independent lookups at once and combine the futures instead of waiting on each in turn.
+ */
+@Service
+public class CustomerServiceAsync {
+
+    private final CustomerService customerService;
+    private final Executor executor;
+
+    public CustomerServiceAsync(CustomerService customerService,
+                                @Qualifier(AsyncConfig.CUSTOMER_EXECUTOR) Executor executor) {
+        this.customerService = customerService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Customer> createAsync(CustomerRequest request) {
+        return CompletableFuture.supplyAsync(() -> customerService.create(request), executor);
+    }
+
+    public CompletableFuture<Optional<Customer>> getAsync(String customerId, String partition) {
+        return CompletableFuture.supplyAsync(() -> customerService.get(customerId, partition), executor);
+    }
+
+    public CompletableFuture<Customer> updateAsync(String customerId, CustomerRequest request, String partition) {
+        return CompletableFuture.supplyAsync(() -> customerService.update(customerId, request, partition), executor);
+    }
+
+    public CompletableFuture<Boolean> patchAsync(String customerId, CustomerPatchRequest request, String partition) {
+        return CompletableFuture.supplyAsync(() -> customerService.patch(customerId, request, partition), executor);
+    }
+
+    public CompletableFuture<Boolean> deleteAsync(String customerId, String partition) {
+        return CompletableFuture.supplyAsync(() -> customerService.delete(customerId, partition), executor);
+    }
+}
@@ -0,0 +1,8 @@
+package dev.onyx.example.customer.service;
+
+public class InvalidPageTokenException extends InvalidQueryException {
+
+    public InvalidPageTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package dev.onyx.example.customer.store;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets a decorator learn when a call it made was held back and when it was let through by an admission limit
+ * further down the chain. {@link ConcurrencyLimitedCustomerStore} reports to whichever listener the calling thread
+ * registered; without a limit in the chain nothing is reported.
+ */
+final class Admission {
+
+    interface Listener {
+
+        void queued();
+
+        void admitted();
+    }
+
+    private static final ThreadLocal<Listener> LISTENER = new ThreadLocal<>();
+
+    private Admission() {
+    }
+
+    static <T> T listen(Listener listener, Supplier<T> call) {
+        LISTENER.set(listener);
+        try {
+            return call.get();
+        } finally {
+            LISTENER.remove();
+        }
+    }
+
+    static void queued() {
+        Listener listener = LISTENER.get();
+        if (listener != null) {
+            listener.queued();
+        }
+    }
+
+    static void admitted() {
+        Listener listener = LISTENER.get();
+        if (listener != null) {
+            listener.admitted();
+        }
+    }
+}
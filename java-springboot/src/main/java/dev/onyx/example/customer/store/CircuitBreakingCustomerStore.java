@@ -0,0 +1,263 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps one circuit per operation and partition, so a partition or call type that Onyx cannot serve fails fast
+ * without taking the rest down with it. A circuit opens once at least {@code minCalls} of its last
+ * {@code windowSize} calls were seen and {@code failureRateThreshold} of them failed; while open, calls are rejected
+ * with {@link OnyxRejectedException} and a {@code Retry-After} of the remaining open time. After {@code openMs} up to
+ * {@code halfOpenProbes} calls are let through: if they all succeed the circuit closes, and any failure reopens it.
+ * <p>
+ * Only failures that say something about Onyx count: bad arguments, unsupported operations and local rejections
+ * pass through without being recorded.
+ * <p>
+ * Partition names come from clients, so they go through {@link KnownPartitions}: partitions beyond the known and
+ * tracked ones share a single {@code other} circuit per operation, which keeps the number of circuits bounded.
+ */
+public class CircuitBreakingCustomerStore implements CustomerStore {
+
+    /**
+     * Tuning for {@link CircuitBreakingCustomerStore}; see {@code OnyxProperties.CircuitBreaker} for what each value
+     * means.
+     */
+    public record Policy(int windowSize,
+                         int minCalls,
+                         double failureRateThreshold,
+                         long openMs,
+                         int halfOpenProbes) {
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final CustomerStore delegate;
+    private final Policy policy;
+    private final KnownPartitions partitions;
+    private final Map<Key, Circuit> circuits = new ConcurrentHashMap<>();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public CircuitBreakingCustomerStore(CustomerStore delegate, Policy policy, KnownPartitions partitions) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.partitions = partitions;
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        return call("findById", partition, () -> delegate.findById(customerId, partition));
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        return call("findByIds", partition, () -> delegate.findByIds(customerIds, partition));
+    }
+
+    @Override
+    public void save(Customer customer) {
+        call("save", customer.getCountryCode(), () -> {
+            delegate.save(customer);
+            return null;
+        });
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        call("saveAll", commonPartition(customers), () -> {
+            delegate.saveAll(customers);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        call("delete", partition, () -> {
+            delegate.delete(customerId, partition);
+            return null;
+        });
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        return call("update", partition, () -> delegate.update(customerId, partition, changes));
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        return call("query", query.getPartition(), () -> delegate.query(query));
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        return call("deleteMatching", query.getPartition(), () -> delegate.deleteMatching(query));
+    }
+
+    @Override
+    public List<String> partitions() {
+        return delegate.partitions();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        return call("aggregate", query.getPartition(), () -> delegate.aggregate(query, groupBy, aggregates));
+    }
+
+    public State getState(String operation, String partition) {
+        Circuit circuit = circuits.get(new Key(operation, key(partition)));
+        return circuit == null ? State.CLOSED : circuit.state();
+    }
+
+    /**
+     * Circuits currently open or half-open.
+     */
+    public int getOpenCount() {
+        return (int) circuits.values().stream().filter(circuit -> circuit.state() != State.CLOSED).count();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+
+    private <T> T call(String operation, String partition, Supplier<T> action) {
+        Circuit circuit = circuits.computeIfAbsent(new Key(operation, key(partition)), key -> new Circuit());
+        long retryAfterMs = circuit.tryAcquire();
+        if (retryAfterMs > 0) {
+            rejected.increment();
+            throw new OnyxRejectedException("Onyx " + operation + " calls for partition '" + key(partition)
+                    + "' are failing; try again shortly", retryAfterMs);
+        }
+        try {
+            T result = action.get();
+            circuit.onResult(true);
+            return result;
+        } catch (OnyxRejectedException | IllegalArgumentException | UnsupportedOperationException ex) {
+            circuit.onIgnored();
+            throw ex;
+        } catch (RuntimeException ex) {
+            circuit.onResult(false);
+            throw ex;
+        }
+    }
+
+    private static String commonPartition(List<Customer> customers) {
+        String partition = customers.isEmpty() ? null : customers.get(0).getCountryCode();
+        for (Customer customer : customers) {
+            if (!Objects.equals(partition, customer.getCountryCode())) {
+                return "*";
+            }
+        }
+        return partition;
+    }
+
+    private String key(String partition) {
+        return "*".equals(partition) ? partition : partitions.resolve(partition);
+    }
+
+    private record Key(String operation, String partition) {
+    }
+
+    /**
+     * Outcomes of the last {@code windowSize} calls in a ring, plus the open/half-open bookkeeping. All state is
+     * guarded by the circuit's monitor; the critical sections are a few field updates.
+     */
+    private final class Circuit {
+
+        private final boolean[] failures = new boolean[Math.max(1, policy.windowSize())];
+        private int next;
+        private int recorded;
+        private int failed;
+
+        private State state = State.CLOSED;
+        private long openUntil;
+        private int probesStarted;
+        private int probesSucceeded;
+
+        synchronized State state() {
+            return state;
+        }
+
+        // Zero admits the call; otherwise the milliseconds until the circuit will try again.
+        synchronized long tryAcquire() {
+            if (state == State.OPEN) {
+                long remaining = openUntil - System.nanoTime();
+                if (remaining > 0) {
+                    return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+                }
+                state = State.HALF_OPEN;
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= Math.max(1, policy.halfOpenProbes())) {
+                    return Math.max(1, policy.openMs());
+                }
+                probesStarted++;
+            }
+            return 0;
+        }
+
+        synchronized void onResult(boolean success) {
+            if (state == State.HALF_OPEN) {
+                if (!success) {
+                    open();
+                } else if (++probesSucceeded >= Math.max(1, policy.halfOpenProbes())) {
+                    close();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // A call admitted before the circuit opened; its outcome is already out of date.
+                return;
+            }
+            if (recorded == failures.length) {
+                failed -= failures[next] ? 1 : 0;
+            } else {
+                recorded++;
+            }
+            failures[next] = !success;
+            failed += success ? 0 : 1;
+            next = (next + 1) % failures.length;
+            if (recorded >= policy.minCalls() && failed >= policy.failureRateThreshold() * recorded) {
+                open();
+            }
+        }
+
+        // A probe that ended without a verdict hands its slot to the next caller.
+        synchronized void onIgnored() {
+            if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+                probesStarted--;
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.openMs());
+            opened.increment();
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            next = 0;
+            recorded = 0;
+            failed = 0;
+        }
+    }
+}
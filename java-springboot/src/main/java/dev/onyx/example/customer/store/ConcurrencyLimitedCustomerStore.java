@@ -0,0 +1,226 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of calls in flight toward Onyx. Callers wait up to {@code acquireTimeoutMs} for a slot and are
+ * turned away with {@link OnyxRejectedException} after that, so a burst of (virtual) request threads queues here
+ * instead of piling onto the database.
+ * <p>
+ * With an adaptive policy the cap follows Onyx's health (AIMD): every call that succeeds in good time raises it by
+ * {@code 1/limit}, about one slot per round of calls, and every failed or slow call multiplies it by
+ * {@code backoffRatio}. It stays between {@code minInFlight} and {@code maxInFlight}, starting at the maximum.
+ */
+public class ConcurrencyLimitedCustomerStore implements CustomerStore {
+
+    /**
+     * Limits for {@link ConcurrencyLimitedCustomerStore}; see {@code OnyxProperties.Concurrency} for what each value
+     * means.
+     */
+    public record Policy(int minInFlight,
+                         int maxInFlight,
+                         long acquireTimeoutMs,
+                         boolean adaptive,
+                         double backoffRatio,
+                         long slowCallMs) {
+
+        public static Policy fixed(int maxInFlight, long acquireTimeoutMs) {
+            return new Policy(maxInFlight, maxInFlight, acquireTimeoutMs, false, 1.0, 0);
+        }
+    }
+
+    private static final long RETRY_AFTER_MS = 1_000;
+
+    private final CustomerStore delegate;
+    private final Policy policy;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long slowCallNanos;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimitedCustomerStore(CustomerStore delegate, int maxInFlight, long acquireTimeoutMs) {
+        this(delegate, Policy.fixed(maxInFlight, acquireTimeoutMs));
+    }
+
+    public ConcurrencyLimitedCustomerStore(CustomerStore delegate, Policy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.maxLimit = Math.max(1, policy.maxInFlight());
+        this.minLimit = Math.max(1, Math.min(maxLimit, policy.minInFlight()));
+        this.slowCallNanos = policy.slowCallMs() > 0 ? TimeUnit.MILLISECONDS.toNanos(policy.slowCallMs()) : Long.MAX_VALUE;
+        this.limit = maxLimit;
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The current cap on calls in flight.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        return call(() -> delegate.findById(customerId, partition));
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        return call(() -> delegate.findByIds(customerIds, partition));
+    }
+
+    @Override
+    public void save(Customer customer) {
+        run(() -> delegate.save(customer));
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        run(() -> delegate.saveAll(customers));
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        run(() -> delegate.delete(customerId, partition));
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        return call(() -> delegate.update(customerId, partition, changes));
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        return call(() -> delegate.query(query));
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        return call(() -> delegate.deleteMatching(query));
+    }
+
+    @Override
+    public List<String> partitions() {
+        return delegate.partitions();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        return call(() -> delegate.aggregate(query, groupBy, aggregates));
+    }
+
+    private void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T call(Supplier<T> action) {
+        Admission.queued();
+        acquire();
+        Admission.admitted();
+        long start = System.nanoTime();
+        boolean overloaded = true;
+        try {
+            T result = action.get();
+            overloaded = System.nanoTime() - start > slowCallNanos;
+            return result;
+        } catch (IllegalArgumentException | UnsupportedOperationException ex) {
+            // The caller's mistake, not a sign of load.
+            overloaded = false;
+            throw ex;
+        } finally {
+            release(overloaded);
+        }
+    }
+
+    private void acquire() {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(policy.acquireTimeoutMs());
+        lock.lock();
+        try {
+            queued++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (remainingNanos <= 0) {
+                        rejected.increment();
+                        throw new OnyxRejectedException("Too many concurrent Onyx calls; try again shortly", RETRY_AFTER_MS);
+                    }
+                    remainingNanos = released.awaitNanos(remainingNanos);
+                }
+            } finally {
+                queued--;
+            }
+            inFlight++;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OnyxUnavailableException("Interrupted while waiting for an Onyx call slot", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (policy.adaptive()) {
+                int before = (int) limit;
+                if (overloaded) {
+                    limit = Math.max(minLimit, limit * policy.backoffRatio());
+                } else if (inFlight + 1 >= before / 2) {
+                    // Only grow while the limit is actually being used, or an idle period would inflate it.
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+                if ((int) limit > before) {
+                    released.signal();
+                }
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
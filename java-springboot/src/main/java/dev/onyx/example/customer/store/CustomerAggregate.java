@@ -0,0 +1,23 @@
+package dev.onyx.example.customer.store;
+
+/**
+ * One aggregate column such as {@code avg(age)}. A {@code null} field is only valid for {@code count} and counts rows.
+ */
+public record CustomerAggregate(Function function, CustomerField field) {
+
+    public enum Function {
+        COUNT,
+        SUM,
+        AVG,
+        MIN,
+        MAX
+    }
+
+    /**
+     * Column name in results, matching the expression Onyx evaluates: {@code count(*)} counts rows,
+     * {@code count(field)} counts non-null values.
+     */
+    public String alias() {
+        return function.name().toLowerCase() + "(" + (field == null ? "*" : field.getFieldName()) + ")";
+    }
+}
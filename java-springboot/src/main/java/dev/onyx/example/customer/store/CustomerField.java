@@ -0,0 +1,58 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.model.ProfilePic;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The {@link Customer} attributes a query may select, filter or sort on, keyed by their Onyx field names.
+ */
+public enum CustomerField {
+
+    CUSTOMER_ID("customerId", Customer::getCustomerId, (c, v) -> c.setCustomerId((String) v), true),
+    FIRST_NAME("firstName", Customer::getFirstName, (c, v) -> c.setFirstName((String) v), true),
+    LAST_NAME("lastName", Customer::getLastName, (c, v) -> c.setLastName((String) v), true),
+    EMAIL("email", Customer::getEmail, (c, v) -> c.setEmail((String) v), true),
+    AGE("age", Customer::getAge, (c, v) -> c.setAge((Integer) v), true),
+    DATE_CREATED("dateCreated", Customer::getDateCreated, (c, v) -> c.setDateCreated((String) v), true),
+    IS_ACTIVE("isActive", Customer::getIsActive, (c, v) -> c.setIsActive((Boolean) v), true),
+    BALANCE("balance", Customer::getBalance, (c, v) -> c.setBalance((Float) v), true),
+    PROFILE_PIC("profilePic", Customer::getProfilePic, (c, v) -> c.setProfilePic((ProfilePic) v), false),
+    COUNTRY_CODE("countryCode", Customer::getCountryCode, (c, v) -> c.setCountryCode((String) v), true);
+
+    private final String fieldName;
+    private final Function<Customer, Object> getter;
+    private final BiConsumer<Customer, Object> setter;
+    private final boolean sortable;
+
+    CustomerField(String fieldName, Function<Customer, Object> getter, BiConsumer<Customer, Object> setter, boolean sortable) {
+        this.fieldName = fieldName;
+        this.getter = getter;
+        this.setter = setter;
+        this.sortable = sortable;
+    }
+
+    public static Optional<CustomerField> fromFieldName(String fieldName) {
+        return Arrays.stream(values()).filter(field -> field.fieldName.equals(fieldName)).findFirst();
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public boolean isSortable() {
+        return sortable;
+    }
+
+    public Object get(Customer customer) {
+        return getter.apply(customer);
+    }
+
+    public void set(Customer customer, Object value) {
+        setter.accept(customer, value);
+    }
+}
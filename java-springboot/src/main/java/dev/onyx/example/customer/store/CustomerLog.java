@@ -0,0 +1,369 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.json.CustomerJson;
+import dev.onyx.example.customer.model.Customer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of customers in a memory-mapped file of fixed size, with the index kept on the heap. Every save
+ * and removal appends a record; the index points at the newest record per (partition, customerId). When the file is
+ * full the live, unexpired records are copied to a fresh file, newest first, until it is half full, and the rest are
+ * dropped, which bounds the file at {@code capacityBytes}.
+ * <p>
+ * Opening rebuilds the index from the record headers only; customers are decoded when they are looked up. Each
+ * record is checksummed and its length is written last, so a record torn by a crash ends the log instead of
+ * corrupting it; whatever follows it is cleared before anything new is appended.
+ * <p>
+ * Record layout: {@code int length, int crc32c, long expiresAt, short partitionLength, partition, short idLength,
+ * id, int payloadLength, payload}. An empty id removes the whole partition and a negative payload length removes
+ * one customer.
+ */
+final class CustomerLog implements AutoCloseable {
+
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int CRC_BYTES = Integer.BYTES;
+    private static final double COMPACTED_FILL = 0.5;
+
+    private final Path file;
+    private final int capacityBytes;
+    private final long ttlMillis;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FileChannel lockChannel;
+
+    // Guarded by lock.
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+    private final Map<String, Map<String, Slot>> index = new HashMap<>();
+    private int entries;
+
+    private final LongAdder compactions = new LongAdder();
+
+    CustomerLog(Path file, long capacityBytes, long ttlMillis) {
+        this.file = file;
+        this.capacityBytes = (int) Math.min(Integer.MAX_VALUE, capacityBytes);
+        this.ttlMillis = ttlMillis;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (lockChannel.tryLock() == null) {
+                lockChannel.close();
+                throw new IllegalStateException("Customer cache file " + file + " is in use by another process");
+            }
+            int existing = Files.exists(file) ? (int) Math.min(Integer.MAX_VALUE, Files.size(file)) : 0;
+            open(file, existing > 0 ? existing : this.capacityBytes);
+            rebuildIndex();
+            if (buffer.capacity() != this.capacityBytes) {
+                // Written with a different size cap; rewrite it at the configured one.
+                compact(0);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open customer cache file " + file, ex);
+        }
+    }
+
+    Customer get(String partition, String customerId) {
+        byte[] payload;
+        lock.readLock().lock();
+        try {
+            Map<String, Slot> slots = index.get(key(partition));
+            Slot slot = slots == null ? null : slots.get(customerId);
+            if (slot == null || slot.expiresAt() <= System.currentTimeMillis()) {
+                return null;
+            }
+            payload = new byte[slot.payloadLength()];
+            buffer.get(slot.payloadPosition(), payload);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return CustomerJson.fromBytes(payload);
+    }
+
+    void put(String partition, Customer customer) {
+        append(key(partition), customer.getCustomerId(), CustomerJson.toBytes(customer));
+    }
+
+    void remove(String partition, String customerId) {
+        append(key(partition), customerId, null);
+    }
+
+    void removePartition(String partition) {
+        append(key(partition), "", null);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            return writePosition;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long getCompactionCount() {
+        return compactions.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+            lockChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(String partition, String customerId, byte[] payload) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        byte[] record = encode(partition, customerId, payload, expiresAt);
+        lock.writeLock().lock();
+        try {
+            if (writePosition + record.length > buffer.capacity()) {
+                compact(record.length);
+            }
+            if (payload != null && writePosition + record.length > buffer.capacity()) {
+                // Too large to cache; record a removal instead so an older copy cannot come back after a restart.
+                payload = null;
+                record = encode(partition, customerId, null, expiresAt);
+            }
+            if (writePosition + record.length > buffer.capacity()) {
+                apply(partition, customerId, null);
+                return;
+            }
+            int position = writePosition;
+            write(buffer, position, record);
+            writePosition += record.length;
+            apply(partition, customerId, payload == null ? null : slotOf(position, record));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to compact customer cache file " + file, ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock.
+    private void apply(String partition, String customerId, Slot slot) {
+        if (customerId.isEmpty()) {
+            Map<String, Slot> removed = index.remove(partition);
+            entries -= removed == null ? 0 : removed.size();
+            return;
+        }
+        if (slot == null) {
+            unindex(partition, customerId);
+            return;
+        }
+        if (index.computeIfAbsent(partition, key -> new HashMap<>()).put(customerId, slot) == null) {
+            entries++;
+        }
+    }
+
+    private void unindex(String partition, String customerId) {
+        Map<String, Slot> slots = index.get(partition);
+        if (slots != null && slots.remove(customerId) != null) {
+            entries--;
+            if (slots.isEmpty()) {
+                index.remove(partition);
+            }
+        }
+    }
+
+    private void rebuildIndex() {
+        long now = System.currentTimeMillis();
+        int position = 0;
+        while (position + LENGTH_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= CRC_BYTES || position + LENGTH_BYTES + length > buffer.capacity() || !checksumMatches(position, length)) {
+                break;
+            }
+            Header header = readHeader(position);
+            Slot slot = header.payloadLength() < 0 || header.expiresAt() <= now ? null
+                    : new Slot(header.payloadPosition(), header.payloadLength(), header.expiresAt());
+            apply(header.partition(), header.customerId(), slot);
+            position += LENGTH_BYTES + length;
+        }
+        writePosition = position;
+        clearTail(position);
+    }
+
+    // Pages of a mapped file reach the disk in no particular order, so a crash can leave intact records behind a
+    // torn one. Appends would overwrite them piecemeal and a later open could read the survivors back as current.
+    private void clearTail(int position) {
+        byte[] chunk = new byte[8192];
+        for (int start = position; start < buffer.capacity(); start += chunk.length) {
+            int length = Math.min(chunk.length, buffer.capacity() - start);
+            buffer.get(start, chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] != 0) {
+                    zero(position);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void zero(int position) {
+        byte[] zeros = new byte[8192];
+        for (int start = position; start < buffer.capacity(); start += zeros.length) {
+            buffer.put(start, zeros, 0, Math.min(zeros.length, buffer.capacity() - start));
+        }
+        buffer.force();
+    }
+
+    // Keeps the newest live records that fit in half the file (less the record waiting to be appended).
+    private void compact(int incomingBytes) throws IOException {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, Map.Entry<String, Slot>>> live = new ArrayList<>(entries);
+        index.forEach((partition, slots) -> slots.entrySet().stream()
+                .filter(slot -> slot.getValue().expiresAt() > now)
+                .forEach(slot -> live.add(Map.entry(partition, slot))));
+        live.sort(Comparator.comparingInt(
+                (Map.Entry<String, Map.Entry<String, Slot>> entry) -> entry.getValue().getValue().payloadPosition()).reversed());
+
+        long budget = (long) (capacityBytes * COMPACTED_FILL) - incomingBytes;
+        List<byte[]> kept = new ArrayList<>();
+        List<Map.Entry<String, Map.Entry<String, Slot>>> keptEntries = new ArrayList<>();
+        long used = 0;
+        for (Map.Entry<String, Map.Entry<String, Slot>> entry : live) {
+            Slot slot = entry.getValue().getValue();
+            byte[] payload = new byte[slot.payloadLength()];
+            buffer.get(slot.payloadPosition(), payload);
+            byte[] record = encode(entry.getKey(), entry.getValue().getKey(), payload, slot.expiresAt());
+            if (used + record.length > budget) {
+                break;
+            }
+            kept.add(record);
+            keptEntries.add(entry);
+            used += record.length;
+        }
+
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        FileChannel nextChannel = FileChannel.open(compacted,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer next = nextChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+        index.clear();
+        entries = 0;
+        int position = 0;
+        // Oldest first, so the file keeps its order and the next compaction again drops the oldest.
+        for (int i = kept.size() - 1; i >= 0; i--) {
+            byte[] record = kept.get(i);
+            write(next, position, record);
+            Map.Entry<String, Map.Entry<String, Slot>> entry = keptEntries.get(i);
+            apply(entry.getKey(), entry.getValue().getKey(), slotOf(position, record));
+            position += record.length;
+        }
+        next.force();
+        channel.close();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = nextChannel;
+        buffer = next;
+        writePosition = position;
+        compactions.increment();
+    }
+
+    private void open(Path path, int size) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private boolean checksumMatches(int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + LENGTH_BYTES + CRC_BYTES, length - CRC_BYTES));
+        return (int) crc.getValue() == buffer.getInt(position + LENGTH_BYTES);
+    }
+
+    private Header readHeader(int position) {
+        int cursor = position + LENGTH_BYTES + CRC_BYTES;
+        long expiresAt = buffer.getLong(cursor);
+        cursor += Long.BYTES;
+        String partition = readString(cursor);
+        cursor += Short.BYTES + buffer.getShort(cursor);
+        String customerId = readString(cursor);
+        cursor += Short.BYTES + buffer.getShort(cursor);
+        int payloadLength = buffer.getInt(cursor);
+        return new Header(expiresAt, partition, customerId, cursor + Integer.BYTES, payloadLength);
+    }
+
+    private String readString(int position) {
+        byte[] bytes = new byte[buffer.getShort(position)];
+        buffer.get(position + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // The length goes in last: until it is written, the record reads as the end of the log.
+    private static void write(MappedByteBuffer target, int position, byte[] record) {
+        target.put(position + LENGTH_BYTES, record, LENGTH_BYTES, record.length - LENGTH_BYTES);
+        target.putInt(position, record.length - LENGTH_BYTES);
+    }
+
+    private static Slot slotOf(int position, byte[] record) {
+        ByteBuffer view = ByteBuffer.wrap(record);
+        int cursor = LENGTH_BYTES + CRC_BYTES;
+        long expiresAt = view.getLong(cursor);
+        cursor += Long.BYTES;
+        cursor += Short.BYTES + view.getShort(cursor);
+        cursor += Short.BYTES + view.getShort(cursor);
+        return new Slot(position + cursor + Integer.BYTES, view.getInt(cursor), expiresAt);
+    }
+
+    private static byte[] encode(String partition, String customerId, byte[] payload, long expiresAt) {
+        byte[] partitionBytes = partition.getBytes(StandardCharsets.UTF_8);
+        byte[] idBytes = customerId.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = payload == null ? 0 : payload.length;
+        ByteBuffer record = ByteBuffer.allocate(LENGTH_BYTES + CRC_BYTES + Long.BYTES
+                + Short.BYTES + partitionBytes.length + Short.BYTES + idBytes.length + Integer.BYTES + payloadLength);
+        record.position(LENGTH_BYTES + CRC_BYTES);
+        record.putLong(expiresAt);
+        record.putShort((short) partitionBytes.length).put(partitionBytes);
+        record.putShort((short) idBytes.length).put(idBytes);
+        record.putInt(payload == null ? -1 : payload.length);
+        if (payload != null) {
+            record.put(payload);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), LENGTH_BYTES + CRC_BYTES, record.capacity() - LENGTH_BYTES - CRC_BYTES);
+        record.putInt(LENGTH_BYTES, (int) crc.getValue());
+        return record.array();
+    }
+
+    private static String key(String partition) {
+        return partition == null ? "" : partition;
+    }
+
+    private record Slot(int payloadPosition, int payloadLength, long expiresAt) {
+    }
+
+    private record Header(long expiresAt, String partition, String customerId, int payloadPosition, int payloadLength) {
+    }
+}
@@ -0,0 +1,121 @@
+package dev.onyx.example.customer.store;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Store-neutral description of a customer query. Tokens are the raw cursors returned in
+ * {@link CustomerQueryPage#nextPage()}, not the opaque tokens handed to API clients. Range bounds are inclusive
+ * and every predicate that is set must match; an empty {@code fields} list selects whole customers.
+ */
+public final class CustomerQuery {
+
+    private final String partition;
+    private Integer pageSize;
+    private String pageToken;
+    private Boolean active;
+    private Integer minAge;
+    private Integer maxAge;
+    private Float minBalance;
+    private Float maxBalance;
+    private List<String> customerIds = List.of();
+    private List<CustomerField> fields = List.of();
+    private List<Sort> sort = List.of();
+
+    private CustomerQuery(String partition) {
+        this.partition = partition;
+    }
+
+    public static CustomerQuery inPartition(String partition) {
+        return new CustomerQuery(partition);
+    }
+
+    public CustomerQuery pageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    public CustomerQuery pageToken(String pageToken) {
+        this.pageToken = pageToken;
+        return this;
+    }
+
+    public CustomerQuery active(Boolean active) {
+        this.active = active;
+        return this;
+    }
+
+    public CustomerQuery ageBetween(Integer minAge, Integer maxAge) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        return this;
+    }
+
+    public CustomerQuery balanceBetween(Float minBalance, Float maxBalance) {
+        this.minBalance = minBalance;
+        this.maxBalance = maxBalance;
+        return this;
+    }
+
+    public CustomerQuery customerIds(Collection<String> customerIds) {
+        this.customerIds = List.copyOf(customerIds);
+        return this;
+    }
+
+    public CustomerQuery select(List<CustomerField> fields) {
+        this.fields = List.copyOf(fields);
+        return this;
+    }
+
+    public CustomerQuery orderBy(List<Sort> sort) {
+        this.sort = List.copyOf(sort);
+        return this;
+    }
+
+    public String getPartition() {
+        return partition;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public String getPageToken() {
+        return pageToken;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public Float getMinBalance() {
+        return minBalance;
+    }
+
+    public Float getMaxBalance() {
+        return maxBalance;
+    }
+
+    public List<String> getCustomerIds() {
+        return customerIds;
+    }
+
+    public List<CustomerField> getFields() {
+        return fields;
+    }
+
+    public List<Sort> getSort() {
+        return sort;
+    }
+
+    public record Sort(CustomerField field, boolean descending) {
+    }
+}
@@ -0,0 +1,11 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.List;
+
+/**
+ * One page of query results; {@code nextPage} is null or blank once the last page has been returned.
+ */
+public record CustomerQueryPage(List<Customer> customers, String nextPage) {
+}
@@ -0,0 +1,58 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Onyx operations {@code CustomerService} relies on. Partitions passed here are already resolved;
+ * cross-cutting concerns such as concurrency limits are layered on as decorators in {@code CustomerStoreConfig}.
+ */
+public interface CustomerStore {
+
+    Customer findById(String customerId, String partition);
+
+    /**
+     * Loads every customer in {@code customerIds} that exists in the partition, in no particular order.
+     */
+    List<Customer> findByIds(Collection<String> customerIds, String partition);
+
+    void save(Customer customer);
+
+    void saveAll(List<Customer> customers);
+
+    void delete(String customerId, String partition);
+
+    /**
+     * Writes only the given fields of an existing customer and returns the number of records changed,
+     * i.e. 0 when the customer does not exist in that partition.
+     */
+    int update(String customerId, String partition, Map<String, Object> changes);
+
+    CustomerQueryPage query(CustomerQuery query);
+
+    /**
+     * Deletes every customer matching the predicates of {@code query} in a single call and returns how many were
+     * removed. Paging, projection and ordering are ignored.
+     */
+    int deleteMatching(CustomerQuery query);
+
+    /**
+     * Partitions this store knows to hold customers, or an empty list when it cannot enumerate them.
+     */
+    default List<String> partitions() {
+        return List.of();
+    }
+
+    /**
+     * Evaluates {@code aggregates} over the customers matching {@code query}, one row per distinct combination of
+     * {@code groupBy} values. Rows map group field names and {@link CustomerAggregate#alias()} to values.
+     * Stores that cannot compute aggregates themselves throw {@link UnsupportedOperationException}, and callers
+     * fall back to aggregating pages of {@link #query(CustomerQuery)}.
+     */
+    default List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        throw new UnsupportedOperationException("Aggregation is not supported by " + getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,262 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Second-level cache of customers by id in a file that survives restarts, below the in-process
+ * {@code CustomerCache}. Lookups by id check the file before the wrapped store and write what they load back to it;
+ * saves are written through, and updates and deletes drop what they touch, so the file never serves a customer
+ * this instance has changed since. A restarted instance answers repeat lookups from the file instead of sending
+ * them all to Onyx.
+ * <p>
+ * A write can finish while a lookup that read the old customer from the wrapped store is still on its way back. Each
+ * customer id maps to a generation counter that writes bump, and a lookup only writes what it loaded to the file if
+ * the generation is the one it saw before reading; otherwise the stale customer would be served, across restarts,
+ * for up to {@code ttlMs}.
+ * <p>
+ * The file is a cache, not a source of truth: if reading or writing it fails the call falls back to the wrapped
+ * store and the failure is only logged.
+ */
+public class DiskCachedCustomerStore implements CustomerStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DiskCachedCustomerStore.class);
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final CustomerStore delegate;
+    private final CustomerLog file;
+    // A generation per stripe of customer ids; a stripe's monitor makes the check and the write-back one step.
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private final Object[] stripeLocks = new Object[GENERATION_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public DiskCachedCustomerStore(CustomerStore delegate, Path file, long maxSizeBytes, long ttlMs) {
+        this.delegate = delegate;
+        this.file = new CustomerLog(file, maxSizeBytes, ttlMs);
+        for (int i = 0; i < stripeLocks.length; i++) {
+            stripeLocks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        Customer cached = read(partition, customerId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long generation = generation(partition, customerId);
+        Customer found = delegate.findById(customerId, partition);
+        if (found != null) {
+            putIfUnchanged(partition, found, generation);
+        }
+        return found;
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        List<Customer> found = new ArrayList<>(customerIds.size());
+        List<String> remaining = new ArrayList<>(customerIds.size());
+        for (String customerId : customerIds) {
+            Customer cached = read(partition, customerId);
+            if (cached != null) {
+                found.add(cached);
+            } else {
+                remaining.add(customerId);
+            }
+        }
+        hits.add(found.size());
+        misses.add(remaining.size());
+        if (!remaining.isEmpty()) {
+            Map<String, Long> generations = new HashMap<>();
+            remaining.forEach(customerId -> generations.put(customerId, generation(partition, customerId)));
+            List<Customer> loaded = delegate.findByIds(remaining, partition);
+            for (Customer customer : loaded) {
+                Long generation = generations.get(customer.getCustomerId());
+                if (generation != null) {
+                    putIfUnchanged(partition, customer, generation);
+                }
+            }
+            found.addAll(loaded);
+        }
+        return found;
+    }
+
+    @Override
+    public void save(Customer customer) {
+        try {
+            delegate.save(customer);
+        } catch (RuntimeException ex) {
+            changed(customer.getCountryCode(), customer.getCustomerId(),
+                    () -> file.remove(customer.getCountryCode(), customer.getCustomerId()));
+            throw ex;
+        }
+        changed(customer.getCountryCode(), customer.getCustomerId(), () -> file.put(customer.getCountryCode(), customer));
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        try {
+            delegate.saveAll(customers);
+        } catch (RuntimeException ex) {
+            customers.forEach(customer -> changed(customer.getCountryCode(), customer.getCustomerId(),
+                    () -> file.remove(customer.getCountryCode(), customer.getCustomerId())));
+            throw ex;
+        }
+        customers.forEach(customer -> changed(customer.getCountryCode(), customer.getCustomerId(),
+                () -> file.put(customer.getCountryCode(), customer)));
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        try {
+            delegate.delete(customerId, partition);
+        } finally {
+            changed(partition, customerId, () -> file.remove(partition, customerId));
+        }
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        try {
+            return delegate.update(customerId, partition, changes);
+        } finally {
+            changed(partition, customerId, () -> file.remove(partition, customerId));
+        }
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        try {
+            return delegate.deleteMatching(query);
+        } finally {
+            // Without an id list there is no telling which customers matched, so the whole partition goes.
+            if (query.getCustomerIds().isEmpty()) {
+                for (int stripe = 0; stripe < generations.length; stripe++) {
+                    synchronized (stripeLocks[stripe]) {
+                        generations[stripe]++;
+                    }
+                }
+                write(() -> file.removePartition(query.getPartition()));
+            } else {
+                query.getCustomerIds().forEach(customerId -> changed(query.getPartition(), customerId,
+                        () -> file.remove(query.getPartition(), customerId)));
+            }
+        }
+    }
+
+    @Override
+    public List<String> partitions() {
+        return delegate.partitions();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        return delegate.aggregate(query, groupBy, aggregates);
+    }
+
+    /**
+     * Flushes the file and closes the wrapped store if it holds resources of its own.
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            file.close();
+        } finally {
+            if (delegate instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public int getSize() {
+        return file.size();
+    }
+
+    public long getUsedBytes() {
+        return file.getUsedBytes();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getCompactionCount() {
+        return file.getCompactionCount();
+    }
+
+    private Customer read(String partition, String customerId) {
+        try {
+            return file.get(partition, customerId);
+        } catch (RuntimeException ex) {
+            errors.increment();
+            log.warn("Reading customer {} from the disk cache failed", customerId, ex);
+            return null;
+        }
+    }
+
+    private long generation(String partition, String customerId) {
+        int stripe = stripe(partition, customerId);
+        synchronized (stripeLocks[stripe]) {
+            return generations[stripe];
+        }
+    }
+
+    private void putIfUnchanged(String partition, Customer customer, long generation) {
+        int stripe = stripe(partition, customer.getCustomerId());
+        synchronized (stripeLocks[stripe]) {
+            if (generations[stripe] == generation) {
+                write(() -> file.put(partition, customer));
+            }
+        }
+    }
+
+    // Bumps the customer's generation and updates the file in one step, so no lookup can write back in between.
+    private void changed(String partition, String customerId, Runnable action) {
+        int stripe = stripe(partition, customerId);
+        synchronized (stripeLocks[stripe]) {
+            generations[stripe]++;
+            write(action);
+        }
+    }
+
+    private static int stripe(String partition, String customerId) {
+        return Math.floorMod(Objects.hash(partition == null ? "" : partition, customerId), GENERATION_STRIPES);
+    }
+
+    private void write(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException ex) {
+            errors.increment();
+            log.warn("Updating the disk cache failed", ex);
+        }
+    }
+}
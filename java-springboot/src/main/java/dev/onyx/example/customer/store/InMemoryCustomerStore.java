@@ -0,0 +1,348 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.model.ProfilePic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Process-local stand-in for Onyx used with {@code onyx.mode=in-memory}. Customers are stored per partition and
+ * copied on the way in and out, like a remote round trip would. Every call can be slowed down and made to fail
+ * at a configurable rate, so throughput and failure-handling runs are repeatable without a live database.
+ */
+public class InMemoryCustomerStore implements CustomerStore {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final String SORT_TOKEN_PREFIX = "#";
+
+    private final Map<String, NavigableMap<String, Customer>> partitions = new ConcurrentHashMap<>();
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+
+    public InMemoryCustomerStore(long latencyMs, long latencyJitterMs, double errorRate) {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        simulateCall();
+        return copy(partition(partition).get(customerId));
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        simulateCall();
+        NavigableMap<String, Customer> customers = partition(partition);
+        List<Customer> found = new ArrayList<>(customerIds.size());
+        for (String customerId : customerIds) {
+            Customer customer = customers.get(customerId);
+            if (customer != null) {
+                found.add(copy(customer));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void save(Customer customer) {
+        simulateCall();
+        partition(customer.getCountryCode()).put(customer.getCustomerId(), copy(customer));
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        simulateCall();
+        for (Customer customer : customers) {
+            partition(customer.getCountryCode()).put(customer.getCustomerId(), copy(customer));
+        }
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        simulateCall();
+        partition(partition).remove(customerId);
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        simulateCall();
+        Customer[] updated = new Customer[1];
+        partition(partition).computeIfPresent(customerId, (id, existing) -> {
+            updated[0] = applyChanges(copy(existing), changes);
+            return updated[0];
+        });
+        if (updated[0] == null) {
+            return 0;
+        }
+        String newPartition = updated[0].getCountryCode();
+        if (newPartition != null && !newPartition.equals(partition)) {
+            partition(partition).remove(customerId);
+            partition(newPartition).put(customerId, updated[0]);
+        }
+        return 1;
+    }
+
+    /**
+     * Every page is a keyset seek. Unsorted queries page by customer id and the page token is the last id returned.
+     * Sorted queries carry the last row's sort values and id in the token, and a page is the {@code pageSize} rows
+     * that order after it, picked with a bounded heap rather than by sorting the whole partition. Rows written
+     * between pages are neither skipped nor repeated. A token that cannot be read throws
+     * {@link IllegalArgumentException}.
+     */
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        simulateCall();
+        int pageSize = query.getPageSize() == null || query.getPageSize() <= 0 ? DEFAULT_PAGE_SIZE : query.getPageSize();
+        Predicate<Customer> matches = matcher(query);
+        NavigableMap<String, Customer> customers = partition(query.getPartition());
+
+        if (query.getSort().isEmpty()) {
+            if (query.getPageToken() != null && !query.getPageToken().isEmpty()) {
+                customers = customers.tailMap(query.getPageToken(), false);
+            }
+            List<Customer> page = new ArrayList<>(Math.min(pageSize, customers.size()));
+            String nextPage = null;
+            for (Customer customer : customers.values()) {
+                if (!matches.test(customer)) {
+                    continue;
+                }
+                if (page.size() == pageSize) {
+                    nextPage = page.get(page.size() - 1).getCustomerId();
+                    break;
+                }
+                page.add(customer);
+            }
+            return new CustomerQueryPage(project(page, query.getFields()), nextPage);
+        }
+
+        Comparator<Customer> order = comparator(query.getSort());
+        Customer after = decodeSortToken(query.getPageToken(), query.getSort());
+        // Keeps the pageSize + 1 smallest rows after the anchor, largest on top; the extra one says there is more.
+        PriorityQueue<Customer> smallest = new PriorityQueue<>(pageSize + 1, order.reversed());
+        for (Customer customer : customers.values()) {
+            if (!matches.test(customer) || (after != null && order.compare(customer, after) <= 0)) {
+                continue;
+            }
+            if (smallest.size() <= pageSize) {
+                smallest.add(customer);
+            } else if (order.compare(customer, smallest.peek()) < 0) {
+                smallest.poll();
+                smallest.add(customer);
+            }
+        }
+        List<Customer> page = new ArrayList<>(smallest);
+        page.sort(order);
+        String nextPage = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            nextPage = encodeSortToken(page.get(pageSize - 1), query.getSort());
+        }
+        return new CustomerQueryPage(project(page, query.getFields()), nextPage);
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        simulateCall();
+        Predicate<Customer> matches = matcher(query);
+        int deleted = 0;
+        Iterator<Customer> it = partition(query.getPartition()).values().iterator();
+        while (it.hasNext()) {
+            if (matches.test(it.next())) {
+                it.remove();
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<String> partitions() {
+        return partitions.entrySet().stream()
+                .filter(entry -> !entry.getKey().isEmpty() && !entry.getValue().isEmpty())
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    public int size() {
+        return partitions.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private NavigableMap<String, Customer> partition(String partition) {
+        return partitions.computeIfAbsent(partition == null ? "" : partition, key -> new ConcurrentSkipListMap<>());
+    }
+
+    private void simulateCall() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during simulated Onyx call", ex);
+            }
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            throw new IllegalStateException("Injected in-memory store failure");
+        }
+    }
+
+    private Customer applyChanges(Customer customer, Map<String, Object> changes) {
+        changes.forEach((fieldName, value) -> {
+            CustomerField field = CustomerField.fromFieldName(fieldName)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown Customer field " + fieldName));
+            field.set(customer, value instanceof ProfilePic profilePic ? copy(profilePic) : value);
+        });
+        return customer;
+    }
+
+    private Predicate<Customer> matcher(CustomerQuery query) {
+        Set<String> customerIds = query.getCustomerIds().isEmpty() ? null : new HashSet<>(query.getCustomerIds());
+        return customer -> (customerIds == null || customerIds.contains(customer.getCustomerId()))
+                && (query.getActive() == null || query.getActive().equals(customer.getIsActive()))
+                && within(customer.getAge(), query.getMinAge(), query.getMaxAge())
+                && within(customer.getBalance(), query.getMinBalance(), query.getMaxBalance());
+    }
+
+    private static <T extends Comparable<T>> boolean within(T value, T min, T max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null
+                && (min == null || value.compareTo(min) >= 0)
+                && (max == null || value.compareTo(max) <= 0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Customer> comparator(List<CustomerQuery.Sort> sort) {
+        Comparator<Customer> comparator = null;
+        for (CustomerQuery.Sort order : sort) {
+            Comparator<Customer> next = Comparator.comparing(
+                    customer -> (Comparable) order.field().get(customer),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.descending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator.thenComparing(Customer::getCustomerId);
+    }
+
+    private static String encodeSortToken(Customer last, List<CustomerQuery.Sort> sort) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (CustomerQuery.Sort order : sort) {
+                Object value = order.field().get(last);
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeUTF(value.toString());
+                }
+            }
+            out.writeUTF(last.getCustomerId());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return SORT_TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    // The anchor carries only the sort fields and id, which is all the comparator looks at.
+    private static Customer decodeSortToken(String pageToken, List<CustomerQuery.Sort> sort) {
+        if (pageToken == null || pageToken.isEmpty()) {
+            return null;
+        }
+        if (!pageToken.startsWith(SORT_TOKEN_PREFIX)) {
+            throw new IllegalArgumentException("Page token does not belong to a sorted query");
+        }
+        Customer anchor = new Customer();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                Base64.getUrlDecoder().decode(pageToken.substring(SORT_TOKEN_PREFIX.length()))))) {
+            for (CustomerQuery.Sort order : sort) {
+                if (in.readBoolean()) {
+                    order.field().set(anchor, parse(order.field(), in.readUTF()));
+                }
+            }
+            anchor.setCustomerId(in.readUTF());
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Page token was issued for a different sort order");
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Page token is malformed", ex);
+        }
+        return anchor;
+    }
+
+    private static Object parse(CustomerField field, String value) {
+        return switch (field) {
+            case AGE -> Integer.valueOf(value);
+            case BALANCE -> Float.valueOf(value);
+            case IS_ACTIVE -> Boolean.valueOf(value);
+            default -> value;
+        };
+    }
+
+    private static List<Customer> project(List<Customer> customers, List<CustomerField> fields) {
+        List<Customer> projected = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            if (fields.isEmpty()) {
+                projected.add(copy(customer));
+                continue;
+            }
+            Customer partial = new Customer();
+            for (CustomerField field : fields) {
+                Object value = field.get(customer);
+                field.set(partial, value instanceof ProfilePic profilePic ? copy(profilePic) : value);
+            }
+            projected.add(partial);
+        }
+        return projected;
+    }
+
+    private static Customer copy(Customer customer) {
+        if (customer == null) {
+            return null;
+        }
+        return new Customer(
+                customer.getCustomerId(),
+                customer.getFirstName(),
+                customer.getLastName(),
+                customer.getEmail(),
+                customer.getAge(),
+                customer.getDateCreated(),
+                customer.getIsActive(),
+                customer.getBalance(),
+                copy(customer.getProfilePic()),
+                customer.getCountryCode()
+        );
+    }
+
+    private static ProfilePic copy(ProfilePic profilePic) {
+        if (profilePic == null) {
+            return null;
+        }
+        return new ProfilePic(profilePic.getUrl(), profilePic.getContentType(), profilePic.getSizeBytes());
+    }
+}
@@ -0,0 +1,163 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Records an {@code onyx.client.requests} timer for every call to the wrapped store, tagged with operation,
+ * partition and outcome, plus an {@code onyx.client.results} summary of rows returned by reads. Partition names
+ * come from clients, so they go through {@link KnownPartitions} first and the number of meters stays bounded.
+ * Meters are registered once per tag combination and then reused, so a call costs a map lookup rather than a
+ * builder and a registry search.
+ */
+public class InstrumentedCustomerStore implements CustomerStore {
+
+    private static final String REQUESTS = "onyx.client.requests";
+    private static final String RESULTS = "onyx.client.results";
+
+    private static final String DEFAULT_PARTITION = "default";
+    private static final String MIXED_PARTITIONS = "multiple";
+
+    private final CustomerStore delegate;
+    private final MeterRegistry registry;
+    private final KnownPartitions partitions;
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public InstrumentedCustomerStore(CustomerStore delegate, MeterRegistry registry, KnownPartitions partitions) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.partitions = partitions;
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        Customer found = record("findById", partition, () -> delegate.findById(customerId, partition));
+        recordResults("findById", partition, found == null ? 0 : 1);
+        return found;
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        List<Customer> found = record("findByIds", partition, () -> delegate.findByIds(customerIds, partition));
+        recordResults("findByIds", partition, found.size());
+        return found;
+    }
+
+    @Override
+    public void save(Customer customer) {
+        record("save", customer.getCountryCode(), () -> {
+            delegate.save(customer);
+            return null;
+        });
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        record("saveAll", partitionOf(customers), () -> {
+            delegate.saveAll(customers);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        record("delete", partition, () -> {
+            delegate.delete(customerId, partition);
+            return null;
+        });
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        return record("update", partition, () -> delegate.update(customerId, partition, changes));
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        CustomerQueryPage page = record("query", query.getPartition(), () -> delegate.query(query));
+        recordResults("query", query.getPartition(), page.customers().size());
+        return page;
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        int deleted = record("deleteMatching", query.getPartition(), () -> delegate.deleteMatching(query));
+        recordResults("deleteMatching", query.getPartition(), deleted);
+        return deleted;
+    }
+
+    @Override
+    public List<String> partitions() {
+        return delegate.partitions();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        List<Map<String, Object>> rows = record("aggregate", query.getPartition(), () -> delegate.aggregate(query, groupBy, aggregates));
+        recordResults("aggregate", query.getPartition(), rows.size());
+        return rows;
+    }
+
+    private <T> T record(String operation, String partition, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(timers.computeIfAbsent(new MeterKey(operation, tagValue(partition), outcome),
+                    key -> Timer.builder(REQUESTS)
+                            .description("Latency of calls made to Onyx")
+                            .tag("operation", key.operation())
+                            .tag("partition", key.partition())
+                            .tag("outcome", key.outcome())
+                            .publishPercentileHistogram()
+                            .register(registry)));
+        }
+    }
+
+    private void recordResults(String operation, String partition, int size) {
+        summaries.computeIfAbsent(new MeterKey(operation, tagValue(partition), null),
+                key -> DistributionSummary.builder(RESULTS)
+                        .description("Rows returned by Onyx reads")
+                        .baseUnit("rows")
+                        .tag("operation", key.operation())
+                        .tag("partition", key.partition())
+                        .register(registry))
+                .record(size);
+    }
+
+    private String partitionOf(List<Customer> customers) {
+        String partition = null;
+        for (Customer customer : customers) {
+            String current = tagValue(customer.getCountryCode());
+            if (partition != null && !partition.equals(current)) {
+                return MIXED_PARTITIONS;
+            }
+            partition = current;
+        }
+        return tagValue(partition);
+    }
+
+    private String tagValue(String partition) {
+        if (MIXED_PARTITIONS.equals(partition) || DEFAULT_PARTITION.equals(partition)) {
+            return partition;
+        }
+        String resolved = partitions.resolve(partition);
+        return resolved.isEmpty() ? DEFAULT_PARTITION : resolved;
+    }
+
+    private record MeterKey(String operation, String partition, String outcome) {
+    }
+}
@@ -0,0 +1,40 @@
+package dev.onyx.example.customer.store;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps partition names that come from clients onto a bounded set, for anything that keeps state per partition
+ * (metric tags, circuits). Configured partitions are always kept; beyond them the first {@code maxTracked} other
+ * names seen are kept as well, and every later name resolves to {@link #OTHER}. Blank names resolve to the empty
+ * string, which callers treat as the default partition.
+ */
+public final class KnownPartitions {
+
+    public static final String OTHER = "other";
+
+    private final Set<String> configured;
+    private final Set<String> tracked = ConcurrentHashMap.newKeySet();
+    private final int maxTracked;
+
+    public KnownPartitions(Collection<String> configured, int maxTracked) {
+        this.configured = Set.copyOf(configured);
+        this.maxTracked = Math.max(0, maxTracked);
+    }
+
+    public String resolve(String partition) {
+        if (partition == null || partition.isBlank()) {
+            return "";
+        }
+        if (configured.contains(partition) || tracked.contains(partition)) {
+            return partition;
+        }
+        // Racing callers may overshoot the cap by a few entries; it bounds growth, not an exact count.
+        if (tracked.size() < maxTracked) {
+            tracked.add(partition);
+            return partition;
+        }
+        return OTHER;
+    }
+}
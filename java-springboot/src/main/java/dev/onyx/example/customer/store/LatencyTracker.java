@@ -0,0 +1,60 @@
+package dev.onyx.example.customer.store;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of the most recent {@code windowSize} calls of one operation. Percentiles are read from a sorted
+ * snapshot that is rebuilt at most once a second, so lookups on the request path stay cheap.
+ */
+final class LatencyTracker {
+
+    private static final long SNAPSHOT_TTL_NANOS = 1_000_000_000L;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final int minSamples;
+
+    private volatile long[] snapshot = new long[0];
+    private volatile long snapshotTakenAt;
+
+    LatencyTracker(int windowSize, int minSamples) {
+        this.samples = new AtomicLongArray(Math.max(1, windowSize));
+        this.minSamples = Math.max(1, minSamples);
+    }
+
+    void record(long nanos) {
+        long index = recorded.getAndIncrement();
+        samples.set((int) (index % samples.length()), nanos);
+    }
+
+    /**
+     * The {@code quantile} (0..1) latency in nanoseconds, or -1 until {@code minSamples} calls have been recorded.
+     */
+    long percentileNanos(double quantile) {
+        if (recorded.get() < minSamples) {
+            return -1;
+        }
+        long[] sorted = snapshot();
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private long[] snapshot() {
+        long now = System.nanoTime();
+        long[] current = snapshot;
+        if (current.length > 0 && now - snapshotTakenAt < SNAPSHOT_TTL_NANOS) {
+            return current;
+        }
+        int size = (int) Math.min(recorded.get(), samples.length());
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        snapshot = copy;
+        snapshotTakenAt = now;
+        return copy;
+    }
+}
@@ -0,0 +1,40 @@
+package dev.onyx.example.customer.store;
+
+import com.onyx.cloud.api.ConditionsKt;
+import com.onyx.cloud.api.IConditionBuilder;
+import com.onyx.cloud.api.Sort;
+
+import java.util.List;
+
+/**
+ * Java-friendly access to the Onyx client's Kotlin condition and sort helpers ({@code "field" eq value} and friends).
+ */
+final class OnyxConditions {
+
+    private OnyxConditions() {
+    }
+
+    static IConditionBuilder eq(String field, Object value) {
+        return ConditionsKt.eq(field, value);
+    }
+
+    static IConditionBuilder in(String field, List<?> values) {
+        return ConditionsKt.inOp(field, values);
+    }
+
+    static IConditionBuilder gte(String field, Object value) {
+        return ConditionsKt.gte(field, value);
+    }
+
+    static IConditionBuilder lte(String field, Object value) {
+        return ConditionsKt.lte(field, value);
+    }
+
+    static Sort asc(String field) {
+        return ConditionsKt.asc(field);
+    }
+
+    static Sort desc(String field) {
+        return ConditionsKt.desc(field);
+    }
+}
@@ -0,0 +1,203 @@
+package dev.onyx.example.customer.store;
+
+import com.onyx.cloud.api.DeleteOptions;
+import com.onyx.cloud.api.FindOptions;
+import com.onyx.cloud.api.IConditionBuilder;
+import com.onyx.cloud.api.IQueryResults;
+import com.onyx.cloud.api.SaveOptions;
+import com.onyx.cloud.api.Sort;
+import com.onyx.cloud.impl.OnyxClient;
+import com.onyx.cloud.impl.QueryBuilder;
+import dev.onyx.example.customer.model.Customer;
+import kotlin.Pair;
+import kotlin.jvm.JvmClassMappingKt;
+import kotlin.reflect.KClass;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class OnyxCustomerStore implements CustomerStore {
+
+    private static final KClass<Customer> CUSTOMER_KCLASS = JvmClassMappingKt.getKotlinClass(Customer.class);
+
+    private final OnyxClient db;
+
+    public OnyxCustomerStore(OnyxClient db) {
+        this.db = db;
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        // Passing null avoids emitting an empty resolver list which the API rejects.
+        FindOptions options = new FindOptions(partition, null);
+        return db.findById(CUSTOMER_KCLASS, customerId, options);
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        List<Customer> found = new ArrayList<>(customerIds.size());
+        String pageToken = null;
+        do {
+            QueryBuilder builder = customerQuery(partition);
+            builder.where(OnyxConditions.in(CustomerField.CUSTOMER_ID.getFieldName(), new ArrayList<>(customerIds)));
+            builder.pageSize(customerIds.size());
+            if (pageToken != null) {
+                builder.nextPage(pageToken);
+            }
+            IQueryResults<Customer> results = list(builder);
+            found.addAll(results);
+            pageToken = results.getNextPage();
+        } while (StringUtils.hasText(pageToken));
+        return found;
+    }
+
+    @Override
+    public void save(Customer customer) {
+        SaveOptions options = new SaveOptions(Collections.emptyList());
+        db.save(CUSTOMER_KCLASS, customer, options);
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        SaveOptions options = new SaveOptions(Collections.emptyList());
+        db.save(CUSTOMER_KCLASS, new ArrayList<>(customers), options);
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        // Passing null relationships avoids emitting an empty array the API may reject.
+        DeleteOptions options = new DeleteOptions(partition, null);
+        db.delete("Customer", customerId, options);
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        QueryBuilder builder = customerQuery(partition);
+        builder.where(OnyxConditions.eq(CustomerField.CUSTOMER_ID.getFieldName(), customerId));
+        @SuppressWarnings("unchecked")
+        Pair<String, Object>[] updates = changes.entrySet().stream()
+                .map(change -> new Pair<>(change.getKey(), change.getValue()))
+                .toArray(Pair[]::new);
+        builder.setUpdates(updates);
+        return builder.update();
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        QueryBuilder builder = customerQuery(query.getPartition());
+        where(builder, query);
+        if (!query.getFields().isEmpty()) {
+            builder.select(query.getFields().stream().map(CustomerField::getFieldName).toArray(String[]::new));
+        }
+        if (!query.getSort().isEmpty()) {
+            builder.orderBy(query.getSort().stream()
+                    .map(sort -> sort.descending()
+                            ? OnyxConditions.desc(sort.field().getFieldName())
+                            : OnyxConditions.asc(sort.field().getFieldName()))
+                    .toArray(Sort[]::new));
+        }
+        if (query.getPageSize() != null && query.getPageSize() > 0) {
+            builder.pageSize(query.getPageSize());
+        }
+        if (StringUtils.hasText(query.getPageToken())) {
+            builder.nextPage(query.getPageToken());
+        }
+
+        IQueryResults<Customer> results = list(builder);
+        return new CustomerQueryPage(new ArrayList<>(results), results.getNextPage());
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        QueryBuilder builder = customerQuery(query.getPartition());
+        where(builder, query);
+        return builder.delete();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        // No entity type: aggregate rows come back as plain maps keyed by the selected expressions.
+        QueryBuilder builder = (QueryBuilder) db.from("Customer");
+        if (StringUtils.hasText(query.getPartition())) {
+            builder.inPartition(query.getPartition());
+        }
+        where(builder, query);
+        List<String> selections = new ArrayList<>();
+        groupBy.forEach(field -> selections.add(field.getFieldName()));
+        aggregates.forEach(aggregate -> selections.add(aggregate.alias()));
+        builder.select(selections.toArray(String[]::new));
+        if (!groupBy.isEmpty()) {
+            builder.groupBy(groupBy.stream().map(CustomerField::getFieldName).toArray(String[]::new));
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        String pageToken = null;
+        do {
+            if (pageToken != null) {
+                builder.nextPage(pageToken);
+            }
+            IQueryResults<?> results = builder.list();
+            for (Object row : results) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> values = (Map<String, Object>) row;
+                rows.add(values);
+            }
+            pageToken = results.getNextPage();
+        } while (StringUtils.hasText(pageToken));
+        return rows;
+    }
+
+    private void where(QueryBuilder builder, CustomerQuery query) {
+        List<IConditionBuilder> conditions = conditions(query);
+        for (int i = 0; i < conditions.size(); i++) {
+            if (i == 0) {
+                builder.where(conditions.get(i));
+            } else {
+                builder.and(conditions.get(i));
+            }
+        }
+    }
+
+    private List<IConditionBuilder> conditions(CustomerQuery query) {
+        List<IConditionBuilder> conditions = new ArrayList<>();
+        if (!query.getCustomerIds().isEmpty()) {
+            conditions.add(OnyxConditions.in(CustomerField.CUSTOMER_ID.getFieldName(), query.getCustomerIds()));
+        }
+        if (query.getActive() != null) {
+            conditions.add(OnyxConditions.eq(CustomerField.IS_ACTIVE.getFieldName(), query.getActive()));
+        }
+        if (query.getMinAge() != null) {
+            conditions.add(OnyxConditions.gte(CustomerField.AGE.getFieldName(), query.getMinAge()));
+        }
+        if (query.getMaxAge() != null) {
+            conditions.add(OnyxConditions.lte(CustomerField.AGE.getFieldName(), query.getMaxAge()));
+        }
+        if (query.getMinBalance() != null) {
+            conditions.add(OnyxConditions.gte(CustomerField.BALANCE.getFieldName(), query.getMinBalance()));
+        }
+        if (query.getMaxBalance() != null) {
+            conditions.add(OnyxConditions.lte(CustomerField.BALANCE.getFieldName(), query.getMaxBalance()));
+        }
+        return conditions;
+    }
+
+    private IQueryResults<Customer> list(QueryBuilder builder) {
+        IQueryResults<?> rawResults = builder.list();
+        @SuppressWarnings("unchecked")
+        IQueryResults<Customer> results = (IQueryResults<Customer>) rawResults;
+        return results;
+    }
+
+    private QueryBuilder customerQuery(String partition) {
+        QueryBuilder builder = (QueryBuilder) db.from("Customer");
+        builder.setType(CUSTOMER_KCLASS);
+        if (StringUtils.hasText(partition)) {
+            builder.inPartition(partition);
+        }
+        return builder;
+    }
+}
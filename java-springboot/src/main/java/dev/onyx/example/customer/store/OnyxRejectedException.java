@@ -0,0 +1,12 @@
+package dev.onyx.example.customer.store;
+
+/**
+ * A call turned away locally, by the concurrency limit or an open circuit, without reaching Onyx. It says nothing
+ * new about Onyx's health, so it is neither retried nor counted as a failure.
+ */
+public class OnyxRejectedException extends OnyxUnavailableException {
+
+    public OnyxRejectedException(String message, long retryAfterMs) {
+        super(message, retryAfterMs);
+    }
+}
@@ -0,0 +1,33 @@
+package dev.onyx.example.customer.store;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Raised when Onyx cannot serve a call right now: it was refused because too many calls are already in flight or
+ * its circuit is open, or it did not answer within its timeout. {@link #getRetryAfterMs()} is a hint for when to try
+ * again, or zero when there is none.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OnyxUnavailableException extends RuntimeException {
+
+    private final long retryAfterMs;
+
+    public OnyxUnavailableException(String message) {
+        this(message, 0);
+    }
+
+    public OnyxUnavailableException(String message, long retryAfterMs) {
+        super(message);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public OnyxUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+        this.retryAfterMs = 0;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,382 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a full in-memory copy of selected partitions and answers reads from it. Each partition is loaded with a
+ * paged scan of the wrapped store and reloaded every {@code refreshIntervalMs}; writes made through this store are
+ * applied to the copy as they happen, so this instance always reads its own writes. Writes made elsewhere show up
+ * with the next reload. A write and its update of the copy happen under a lock striped by customer, so two
+ * concurrent writes to one customer reach the copy in the order Onyx took them.
+ * <p>
+ * A partition is served locally only while its lag, the time since the scan behind its current copy started, is
+ * within {@code maxStalenessMs}. Before the first load, or when reloads keep failing, reads go to the wrapped store.
+ * Local page tokens are marked, so a listing that started on the copy finishes on it and one that started on Onyx
+ * finishes there. They are keyset tokens, so a reload swapping the copy between two pages skips or repeats nothing.
+ */
+public class ReplicatedCustomerStore implements CustomerStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicatedCustomerStore.class);
+    private static final String LOCAL_TOKEN_PREFIX = "replica:";
+    private static final int WRITE_LOCK_STRIPES = 256;
+
+    private final CustomerStore delegate;
+    private final long maxStalenessNanos;
+    private final int scanPageSize;
+    private final Map<String, Replica> replicas = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock[] writeLocks = new ReentrantLock[WRITE_LOCK_STRIPES];
+
+    private final LongAdder localReads = new LongAdder();
+    private final LongAdder bypassedReads = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    public ReplicatedCustomerStore(CustomerStore delegate,
+                                   List<String> partitions,
+                                   long refreshIntervalMs,
+                                   long maxStalenessMs,
+                                   int scanPageSize,
+                                   int refreshThreads) {
+        this.delegate = delegate;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        this.scanPageSize = Math.max(1, scanPageSize);
+        for (int i = 0; i < writeLocks.length; i++) {
+            writeLocks[i] = new ReentrantLock();
+        }
+        partitions.forEach(partition -> replicas.put(partition, new Replica(partition)));
+        AtomicInteger threads = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, Math.min(refreshThreads, replicas.size())), runnable -> {
+            Thread thread = new Thread(runnable, "customer-replica-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Replica replica : replicas.values()) {
+            scheduler.scheduleWithFixedDelay(() -> refreshQuietly(replica), 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        CustomerStore local = local(partition);
+        return local != null ? local.findById(customerId, partition) : delegate.findById(customerId, partition);
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        CustomerStore local = local(partition);
+        return local != null ? local.findByIds(customerIds, partition) : delegate.findByIds(customerIds, partition);
+    }
+
+    @Override
+    public void save(Customer customer) {
+        List<ReentrantLock> locks = lock(new Stripes().add(customer.getCountryCode(), customer.getCustomerId()));
+        try {
+            delegate.save(customer);
+            apply(customer.getCountryCode(), copy -> copy.save(customer));
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        Stripes stripes = new Stripes();
+        customers.forEach(customer -> stripes.add(customer.getCountryCode(), customer.getCustomerId()));
+        List<ReentrantLock> locks = lock(stripes);
+        try {
+            delegate.saveAll(customers);
+            Map<String, List<Customer>> byPartition = new LinkedHashMap<>();
+            for (Customer customer : customers) {
+                byPartition.computeIfAbsent(key(customer.getCountryCode()), key -> new ArrayList<>()).add(customer);
+            }
+            byPartition.forEach((partition, batch) -> apply(partition, copy -> copy.saveAll(batch)));
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        List<ReentrantLock> locks = lock(new Stripes().add(partition, customerId));
+        try {
+            delegate.delete(customerId, partition);
+            apply(partition, copy -> copy.delete(customerId, partition));
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        Object newPartition = changes.get(CustomerField.COUNTRY_CODE.getFieldName());
+        boolean moved = newPartition != null && !Objects.equals(newPartition, partition);
+        Stripes stripes = new Stripes().add(partition, customerId);
+        if (moved) {
+            stripes.add(newPartition.toString(), customerId);
+        }
+        List<ReentrantLock> locks = lock(stripes);
+        try {
+            int updated = delegate.update(customerId, partition, changes);
+            if (updated == 0) {
+                return updated;
+            }
+            if (!moved) {
+                apply(partition, copy -> copy.update(customerId, partition, changes));
+            } else {
+                // Moved between partitions: the copy of the old one only knows the old fields, so reload the customer.
+                apply(partition, copy -> copy.delete(customerId, partition));
+                String target = newPartition.toString();
+                if (replicas.containsKey(target)) {
+                    Customer customer = delegate.findById(customerId, target);
+                    if (customer != null) {
+                        apply(target, copy -> copy.save(customer));
+                    }
+                }
+            }
+            return updated;
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        String pageToken = query.getPageToken();
+        if (pageToken != null && pageToken.startsWith(LOCAL_TOKEN_PREFIX)) {
+            Replica replica = replicas.get(key(query.getPartition()));
+            InMemoryCustomerStore snapshot = replica == null ? null : replica.snapshot;
+            if (snapshot == null) {
+                throw new IllegalArgumentException("Page token was issued by a replica this instance does not have");
+            }
+            localReads.increment();
+            return localPage(snapshot, query.pageToken(pageToken.substring(LOCAL_TOKEN_PREFIX.length())));
+        }
+        CustomerStore local = pageToken == null || pageToken.isEmpty() ? local(query.getPartition()) : null;
+        return local != null ? localPage(local, query) : delegate.query(query);
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        Stripes stripes = new Stripes();
+        if (replicas.containsKey(key(query.getPartition()))) {
+            // Any customer of the partition may match, so every write to it has to wait.
+            stripes.all();
+        }
+        List<ReentrantLock> locks = lock(stripes);
+        try {
+            int deleted = delegate.deleteMatching(query);
+            apply(query.getPartition(), copy -> copy.deleteMatching(query));
+            return deleted;
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    @Override
+    public List<String> partitions() {
+        return delegate.partitions();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        return delegate.aggregate(query, groupBy, aggregates);
+    }
+
+    /**
+     * Stops reloading and closes the wrapped store if it holds resources of its own.
+     */
+    @Override
+    public void close() throws Exception {
+        scheduler.shutdownNow();
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    public List<String> getPartitions() {
+        return List.copyOf(replicas.keySet());
+    }
+
+    /**
+     * Milliseconds since the scan behind the partition's current copy started, or since startup before the first
+     * load completes.
+     */
+    public long getLagMs(String partition) {
+        Replica replica = replicas.get(partition);
+        return replica == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - replica.syncedAt);
+    }
+
+    public int getSize(String partition) {
+        Replica replica = replicas.get(partition);
+        InMemoryCustomerStore snapshot = replica == null ? null : replica.snapshot;
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    public long getLocalReadCount() {
+        return localReads.sum();
+    }
+
+    public long getBypassedReadCount() {
+        return bypassedReads.sum();
+    }
+
+    public long getRefreshFailureCount() {
+        return refreshFailures.sum();
+    }
+
+    // The partition's copy if it is fresh enough to answer from; null sends the read to the wrapped store.
+    private CustomerStore local(String partition) {
+        Replica replica = replicas.get(key(partition));
+        if (replica == null) {
+            return null;
+        }
+        InMemoryCustomerStore snapshot = replica.snapshot;
+        if (snapshot == null || System.nanoTime() - replica.syncedAt > maxStalenessNanos) {
+            bypassedReads.increment();
+            return null;
+        }
+        localReads.increment();
+        return snapshot;
+    }
+
+    private static CustomerQueryPage localPage(CustomerStore local, CustomerQuery query) {
+        CustomerQueryPage page = local.query(query);
+        String nextPage = page.nextPage() == null || page.nextPage().isEmpty() ? null : LOCAL_TOKEN_PREFIX + page.nextPage();
+        return new CustomerQueryPage(page.customers(), nextPage);
+    }
+
+    private void apply(String partition, Consumer<CustomerStore> write) {
+        Replica replica = replicas.get(key(partition));
+        if (replica != null) {
+            replica.apply(write);
+        }
+    }
+
+    // Always in ascending stripe order, so writers that need several stripes cannot deadlock.
+    private List<ReentrantLock> lock(Stripes stripes) {
+        List<ReentrantLock> locks = new ArrayList<>(stripes.indexes.size());
+        for (int index : stripes.indexes) {
+            ReentrantLock lock = writeLocks[index];
+            lock.lock();
+            locks.add(lock);
+        }
+        return locks;
+    }
+
+    private static void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    private void refreshQuietly(Replica replica) {
+        try {
+            replica.refresh();
+        } catch (RuntimeException ex) {
+            refreshFailures.increment();
+            log.warn("Reloading the replica of partition '{}' failed; lag is now {} ms",
+                    replica.partition, getLagMs(replica.partition), ex);
+        }
+    }
+
+    private static String key(String partition) {
+        return partition == null ? "" : partition;
+    }
+
+    /**
+     * Write-lock stripes a write needs. Customers of partitions that are not replicated need none, since there is
+     * no copy to keep in order.
+     */
+    private final class Stripes {
+
+        private final TreeSet<Integer> indexes = new TreeSet<>();
+
+        Stripes add(String partition, String customerId) {
+            if (replicas.containsKey(key(partition))) {
+                indexes.add(Math.floorMod(Objects.hash(key(partition), customerId), writeLocks.length));
+            }
+            return this;
+        }
+
+        void all() {
+            for (int i = 0; i < writeLocks.length; i++) {
+                indexes.add(i);
+            }
+        }
+    }
+
+    /**
+     * One partition's copy. A reload builds a new copy next to the current one and swaps it in; writes that land
+     * during the scan are applied to both and replayed onto the new copy before the swap, so none are lost.
+     */
+    private final class Replica {
+
+        private final String partition;
+        private volatile InMemoryCustomerStore snapshot;
+        private volatile long syncedAt = System.nanoTime();
+        // Writes seen while a reload is running; guarded by this.
+        private List<Consumer<CustomerStore>> journal;
+
+        Replica(String partition) {
+            this.partition = partition;
+        }
+
+        synchronized void apply(Consumer<CustomerStore> write) {
+            if (snapshot != null) {
+                write.accept(snapshot);
+            }
+            if (journal != null) {
+                journal.add(write);
+            }
+        }
+
+        void refresh() {
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            long started = System.nanoTime();
+            InMemoryCustomerStore next = new InMemoryCustomerStore(0, 0, 0);
+            try {
+                String pageToken = null;
+                do {
+                    CustomerQueryPage page = delegate.query(CustomerQuery.inPartition(partition)
+                            .pageSize(scanPageSize)
+                            .pageToken(pageToken));
+                    next.saveAll(page.customers());
+                    pageToken = page.nextPage() == null || page.nextPage().isEmpty() ? null : page.nextPage();
+                    if (pageToken != null && Thread.currentThread().isInterrupted()) {
+                        throw new IllegalStateException("Interrupted while reloading partition '" + partition + "'");
+                    }
+                } while (pageToken != null);
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    journal = null;
+                }
+                throw ex;
+            }
+            synchronized (this) {
+                journal.forEach(write -> write.accept(next));
+                journal = null;
+                snapshot = next;
+                syncedAt = started;
+            }
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Guards reads against slow or flaky Onyx calls. Each read operation keeps a window of recent latencies per result
+ * size bucket ({@link #SIZE_BUCKETS}), so a one-row lookup and a thousand-row page do not share a timeout, and
+ * derives its timeout from a high percentile of it. Failed or timed-out reads are retried with jittered exponential
+ * backoff while a shared retry budget allows. With hedging on, a duplicate read is sent once the first has taken
+ * longer than the operation's hedge percentile, and whichever answers first wins.
+ * <p>
+ * Time spent waiting for a slot in an admission limit below this store does not count: an attempt's clock starts
+ * when the limit lets it through. A timed-out attempt is cancelled, but a blocking call may keep running and keep
+ * its slot; until it finishes it counts as a withdrawal from the retry budget, so retries cannot multiply the load
+ * of calls that are already stuck.
+ * <p>
+ * Writes are not idempotent in general and pass straight through.
+ */
+public class ResilientCustomerStore implements CustomerStore {
+
+    /**
+     * Tuning for {@link ResilientCustomerStore}; see {@code OnyxProperties.Resilience} for what each value means.
+     */
+    public record Policy(int windowSize,
+                         int minSamples,
+                         double timeoutPercentile,
+                         double timeoutMultiplier,
+                         long minTimeoutMs,
+                         long maxTimeoutMs,
+                         int maxAttempts,
+                         long backoffBaseMs,
+                         long backoffMaxMs,
+                         double retryBudgetRatio,
+                         int retryBudgetMax,
+                         boolean hedgingEnabled,
+                         double hedgePercentile,
+                         long hedgeMinDelayMs) {
+    }
+
+    /**
+     * Upper bounds of the result sizes that get a latency window of their own; larger or unbounded reads share the
+     * last.
+     */
+    public static final List<String> SIZE_BUCKETS = List.of("1", "10", "100", "1000+");
+
+    private static final long TOKEN = 1_000;
+
+    private final CustomerStore delegate;
+    private final Policy policy;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    // Attempts given up on whose calls have not returned yet.
+    private final AtomicInteger abandoned = new AtomicInteger();
+
+    // Retry budget in thousandths of a retry: every read deposits retryBudgetRatio, every retry or hedge takes one.
+    private final AtomicLong budget;
+    private final long budgetDeposit;
+    private final long budgetCap;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    public ResilientCustomerStore(CustomerStore delegate, Policy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.budgetCap = Math.max(1, policy.retryBudgetMax()) * TOKEN;
+        this.budgetDeposit = Math.round(policy.retryBudgetRatio() * TOKEN);
+        this.budget = new AtomicLong(budgetCap);
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        return read("findById", 1, () -> delegate.findById(customerId, partition));
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        return read("findByIds", customerIds.size(), () -> delegate.findByIds(customerIds, partition));
+    }
+
+    @Override
+    public void save(Customer customer) {
+        delegate.save(customer);
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        delegate.saveAll(customers);
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        delegate.delete(customerId, partition);
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        return delegate.update(customerId, partition, changes);
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        return read("query", expectedRows(query), () -> delegate.query(query));
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        return delegate.deleteMatching(query);
+    }
+
+    @Override
+    public List<String> partitions() {
+        return delegate.partitions();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        return read("aggregate", Integer.MAX_VALUE, () -> delegate.aggregate(query, groupBy, aggregates));
+    }
+
+    /**
+     * Current timeout for {@code operation} reads in the given {@link #SIZE_BUCKETS size bucket}, in milliseconds;
+     * {@code maxTimeoutMs} until enough calls have been seen.
+     */
+    public long getTimeoutMs(String operation, String sizeBucket) {
+        return TimeUnit.NANOSECONDS.toMillis(timeoutNanos(tracker(operation, sizeBucket)));
+    }
+
+    /**
+     * Attempts that timed out or lost a hedge and whose calls are still running.
+     */
+    public int getAbandonedCount() {
+        return abandoned.get();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.sum();
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgesWon.sum();
+    }
+
+    private <T> T read(String operation, int rows, Supplier<T> call) {
+        LatencyTracker tracker = tracker(operation, sizeBucket(rows));
+        budget.updateAndGet(tokens -> Math.min(budgetCap, tokens + budgetDeposit));
+        int maxAttempts = Math.max(1, policy.maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(operation, tracker, call);
+            } catch (RuntimeException ex) {
+                if (!isRetryable(ex) || attempt >= maxAttempts) {
+                    throw ex;
+                }
+                if (!withdraw()) {
+                    budgetExhausted.increment();
+                    throw ex;
+                }
+                retries.increment();
+                backOff(attempt, ex);
+            }
+        }
+    }
+
+    private <T> T attempt(String operation, LatencyTracker tracker, Supplier<T> call) {
+        long timeoutNanos = timeoutNanos(tracker);
+        long hedgeDelayNanos = policy.hedgingEnabled() ? hedgeDelayNanos(tracker) : -1;
+
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Call<T>> started = new ArrayList<>(2);
+        Call<T> first = start(completion, tracker, call);
+        started.add(first);
+        boolean hedgeConsidered = hedgeDelayNanos < 0 || hedgeDelayNanos >= timeoutNanos;
+        RuntimeException failure = null;
+        try {
+            int pending = 1;
+            while (pending > 0) {
+                long now = System.nanoTime();
+                // While the first call is queued for a slot its clock has not started; check back a timeout later.
+                long admittedAt = first.queued ? now : first.admittedAt;
+                long deadline = admittedAt + timeoutNanos;
+                long waitUntil = hedgeConsidered || first.queued ? deadline : Math.min(deadline, admittedAt + hedgeDelayNanos);
+                Future<T> done = completion.poll(waitUntil - now, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (first.queued) {
+                        continue;
+                    }
+                    if (System.nanoTime() - (first.admittedAt + timeoutNanos) >= 0) {
+                        timeouts.increment();
+                        tracker.record(timeoutNanos);
+                        throw new OnyxUnavailableException(
+                                operation + " timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+                    }
+                    if (System.nanoTime() - (first.admittedAt + hedgeDelayNanos) < 0) {
+                        continue;
+                    }
+                    hedgeConsidered = true;
+                    if (withdraw()) {
+                        hedges.increment();
+                        started.add(start(completion, tracker, call));
+                        pending++;
+                    } else {
+                        budgetExhausted.increment();
+                    }
+                    continue;
+                }
+                pending--;
+                try {
+                    T result = done.get();
+                    if (done != first.future) {
+                        hedgesWon.increment();
+                    }
+                    return result;
+                } catch (ExecutionException ex) {
+                    failure = ex.getCause() instanceof RuntimeException runtime
+                            ? runtime
+                            : new OnyxUnavailableException(operation + " failed", ex.getCause());
+                    if (!isRetryable(failure)) {
+                        throw failure;
+                    }
+                }
+            }
+            throw failure;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OnyxUnavailableException("Interrupted while waiting for " + operation, ex);
+        } finally {
+            started.forEach(Call::abandon);
+        }
+    }
+
+    private <T> Call<T> start(CompletionService<T> completion, LatencyTracker tracker, Supplier<T> call) {
+        Call<T> started = new Call<>();
+        started.future = completion.submit(() -> {
+            if (!started.begin()) {
+                throw new CancellationException();
+            }
+            try {
+                T result = Admission.listen(started, call);
+                tracker.record(System.nanoTime() - started.admittedAt);
+                return result;
+            } finally {
+                started.finish();
+            }
+        });
+        return started;
+    }
+
+    private long timeoutNanos(LatencyTracker tracker) {
+        long maxNanos = TimeUnit.MILLISECONDS.toNanos(policy.maxTimeoutMs());
+        long percentile = tracker.percentileNanos(policy.timeoutPercentile());
+        if (percentile < 0) {
+            return maxNanos;
+        }
+        long adaptive = (long) (percentile * policy.timeoutMultiplier());
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(policy.minTimeoutMs()), Math.min(maxNanos, adaptive));
+    }
+
+    private long hedgeDelayNanos(LatencyTracker tracker) {
+        long percentile = tracker.percentileNanos(policy.hedgePercentile());
+        return percentile < 0 ? -1 : Math.max(TimeUnit.MILLISECONDS.toNanos(policy.hedgeMinDelayMs()), percentile);
+    }
+
+    // Abandoned calls still running hold on to the tokens they were started with.
+    private boolean withdraw() {
+        while (true) {
+            long tokens = budget.get();
+            if (tokens - (long) abandoned.get() * TOKEN < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(tokens, tokens - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    // Full jitter: a uniformly random wait up to the exponential bound spreads retries from concurrent callers.
+    private void backOff(int attempt, RuntimeException failure) {
+        long bound = Math.min(policy.backoffMaxMs(), policy.backoffBaseMs() << Math.min(20, attempt - 1));
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    // Unsupported operations and bad arguments fail the same way every time, and retrying a local rejection only adds
+    // to the overload that caused it; everything else may be transient.
+    private static boolean isRetryable(RuntimeException ex) {
+        return !(ex instanceof UnsupportedOperationException
+                || ex instanceof IllegalArgumentException
+                || ex instanceof OnyxRejectedException);
+    }
+
+    private LatencyTracker tracker(String operation, String sizeBucket) {
+        return latencies.computeIfAbsent(operation + "/" + sizeBucket,
+                key -> new LatencyTracker(policy.windowSize(), policy.minSamples()));
+    }
+
+    private static int expectedRows(CustomerQuery query) {
+        if (query.getPageSize() != null && query.getPageSize() > 0) {
+            return query.getPageSize();
+        }
+        return query.getCustomerIds().isEmpty() ? Integer.MAX_VALUE : query.getCustomerIds().size();
+    }
+
+    private static String sizeBucket(int rows) {
+        int index = 0;
+        for (long bound = 1; index < SIZE_BUCKETS.size() - 1 && rows > bound; bound *= 10) {
+            index++;
+        }
+        return SIZE_BUCKETS.get(index);
+    }
+
+    /**
+     * One attempt's call. Its clock starts when it is admitted, which is at once unless an admission limit below
+     * holds it back.
+     */
+    private final class Call<T> implements Admission.Listener {
+
+        private static final int NEW = 0;
+        private static final int RUNNING = 1;
+        private static final int FINISHED = 2;
+        private static final int ABANDONED = 3;
+
+        private final AtomicInteger state = new AtomicInteger(NEW);
+        private volatile long admittedAt = System.nanoTime();
+        private volatile boolean queued;
+        private Future<T> future;
+
+        @Override
+        public void queued() {
+            queued = true;
+        }
+
+        @Override
+        public void admitted() {
+            admittedAt = System.nanoTime();
+            queued = false;
+        }
+
+        boolean begin() {
+            return state.compareAndSet(NEW, RUNNING);
+        }
+
+        void finish() {
+            if (!state.compareAndSet(RUNNING, FINISHED)) {
+                abandoned.decrementAndGet();
+            }
+        }
+
+        // Only a call that has started can be left holding a slot; one that has not is simply never run.
+        void abandon() {
+            if (!state.compareAndSet(NEW, FINISHED) && state.compareAndSet(RUNNING, ABANDONED)) {
+                abandoned.incrementAndGet();
+            }
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collapses concurrent {@code findById} calls for the same (partition, customerId) into one call to the wrapped store.
+ * The first caller does the lookup and every caller that arrives while it is in flight waits for and shares its
+ * result, so an expired cache entry for a popular customer costs Onyx one read instead of a stampede.
+ * Waiting uses {@link CompletableFuture#join()}, which parks virtual threads without pinning their carrier.
+ * <p>
+ * A write detaches any lookup in flight for the customers it touches before it reaches the wrapped store, so a
+ * caller that arrives after the write started never shares a read taken before it and caches what it replaced.
+ */
+public class SingleFlightCustomerStore implements CustomerStore {
+
+    private final CustomerStore delegate;
+    private final Map<Key, CompletableFuture<Customer>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlightCustomerStore(CustomerStore delegate) {
+        this.delegate = delegate;
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        Key key = new Key(partition, customerId);
+        CompletableFuture<Customer> call = new CompletableFuture<>();
+        CompletableFuture<Customer> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+
+        try {
+            Customer found = delegate.findById(customerId, partition);
+            call.complete(found);
+            return found;
+        } catch (Throwable ex) {
+            // Errors too: a follower blocked on an uncompleted future would wait forever.
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        return delegate.findByIds(customerIds, partition);
+    }
+
+    @Override
+    public void save(Customer customer) {
+        detach(customer.getCountryCode(), customer.getCustomerId());
+        delegate.save(customer);
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        for (Customer customer : customers) {
+            detach(customer.getCountryCode(), customer.getCustomerId());
+        }
+        delegate.saveAll(customers);
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        detach(partition, customerId);
+        delegate.delete(customerId, partition);
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        detach(partition, customerId);
+        return delegate.update(customerId, partition, changes);
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        // The matching ids are not known up front, so every lookup in the partition is detached.
+        inFlight.keySet().removeIf(key -> key.partition().equals(query.getPartition()));
+        return delegate.deleteMatching(query);
+    }
+
+    @Override
+    public List<String> partitions() {
+        return delegate.partitions();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        return delegate.aggregate(query, groupBy, aggregates);
+    }
+
+    // The leader still completes its own callers; only later arrivals start a fresh lookup.
+    private void detach(String partition, String customerId) {
+        inFlight.remove(new Key(partition, customerId));
+    }
+
+    private Customer await(CompletableFuture<Customer> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record Key(String partition, String customerId) {
+    }
+}
@@ -0,0 +1,380 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers single-customer saves per partition and writes them in batches. A later save of the same customer replaces
+ * the buffered one, so bursts of updates to one record cost a single write. Buffers are flushed once
+ * {@code maxBatchSize} customers are pending or every {@code flushIntervalMs}, whichever comes first.
+ * <p>
+ * Reads by id see buffered writes, including ones in a batch that is being written; queries flush the partition
+ * first so they never observe stale data. Flushes of a partition are serialized so an older batch can never land
+ * after a newer one, and a direct write (batch save, update, delete) of a customer that is in a batch being written
+ * waits for that flush, so a buffered copy never lands after, or is requeued over, the newer write.
+ */
+public class WriteBehindCustomerStore implements CustomerStore, AutoCloseable {
+
+    public enum FailurePolicy {
+        /**
+         * Put a failed batch back into the buffer until it has been tried {@code maxAttempts} times.
+         */
+        RETRY,
+        /**
+         * Log and discard a failed batch.
+         */
+        DROP
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCustomerStore.class);
+
+    private final CustomerStore delegate;
+    private final int maxBatchSize;
+    private final int maxBufferedCustomers;
+    private final FailurePolicy failurePolicy;
+    private final int maxAttempts;
+    private final boolean flushOnShutdown;
+    private final ScheduledExecutorService scheduler;
+
+    private static final int FLUSH_LOCK_STRIPES = 64;
+
+    private final Object bufferLock = new Object();
+    private final Map<String, LinkedHashMap<String, Pending>> buffers = new HashMap<>();
+    // Customers drained into a batch whose write has not finished; guarded by bufferLock.
+    private final Map<String, Map<String, Customer>> inFlight = new HashMap<>();
+    private int buffered;
+    private final ReentrantLock[] flushLocks = new ReentrantLock[FLUSH_LOCK_STRIPES];
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public WriteBehindCustomerStore(CustomerStore delegate,
+                                    int maxBatchSize,
+                                    int maxBufferedCustomers,
+                                    long flushIntervalMs,
+                                    FailurePolicy failurePolicy,
+                                    int maxAttempts,
+                                    boolean flushOnShutdown) {
+        this.delegate = delegate;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBufferedCustomers = Math.max(this.maxBatchSize, maxBufferedCustomers);
+        this.failurePolicy = failurePolicy;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.flushOnShutdown = flushOnShutdown;
+        for (int i = 0; i < flushLocks.length; i++) {
+            flushLocks[i] = new ReentrantLock();
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Customer findById(String customerId, String partition) {
+        Customer pending = pending(partition, customerId);
+        return pending != null ? pending : delegate.findById(customerId, partition);
+    }
+
+    @Override
+    public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+        List<Customer> found = new ArrayList<>(customerIds.size());
+        List<String> remaining = new ArrayList<>(customerIds.size());
+        for (String customerId : customerIds) {
+            Customer pending = pending(partition, customerId);
+            if (pending != null) {
+                found.add(pending);
+            } else {
+                remaining.add(customerId);
+            }
+        }
+        if (!remaining.isEmpty()) {
+            found.addAll(delegate.findByIds(remaining, partition));
+        }
+        return found;
+    }
+
+    @Override
+    public void save(Customer customer) {
+        int pendingCount;
+        synchronized (bufferLock) {
+            Pending previous = buffers.computeIfAbsent(key(customer.getCountryCode()), key -> new LinkedHashMap<>())
+                    .put(customer.getCustomerId(), new Pending(customer, 0));
+            if (previous == null) {
+                buffered++;
+            } else {
+                coalesced.increment();
+            }
+            pendingCount = buffered;
+        }
+        if (pendingCount >= maxBufferedCustomers || scheduler.isShutdown()) {
+            // The background flusher has fallen behind; make the writer pay for it instead of growing without bound.
+            flush();
+        } else if (pendingCount >= maxBatchSize) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    @Override
+    public void saveAll(List<Customer> customers) {
+        // Already a batch: drop any buffered copies so an older single save cannot overwrite these later.
+        for (Customer customer : customers) {
+            takePending(customer.getCountryCode(), customer.getCustomerId());
+        }
+        delegate.saveAll(customers);
+    }
+
+    @Override
+    public void delete(String customerId, String partition) {
+        takePending(partition, customerId);
+        delegate.delete(customerId, partition);
+    }
+
+    @Override
+    public int update(String customerId, String partition, Map<String, Object> changes) {
+        Pending pending = takePending(partition, customerId);
+        if (pending != null) {
+            delegate.save(pending.customer());
+            written.increment();
+        }
+        return delegate.update(customerId, partition, changes);
+    }
+
+    @Override
+    public CustomerQueryPage query(CustomerQuery query) {
+        flushPartition(key(query.getPartition()));
+        return delegate.query(query);
+    }
+
+    @Override
+    public int deleteMatching(CustomerQuery query) {
+        // Buffered saves may match the predicate, so they have to reach Onyx before the delete runs.
+        flushPartition(key(query.getPartition()));
+        return delegate.deleteMatching(query);
+    }
+
+    @Override
+    public List<String> partitions() {
+        return delegate.partitions();
+    }
+
+    @Override
+    public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy, List<CustomerAggregate> aggregates) {
+        flushPartition(key(query.getPartition()));
+        return delegate.aggregate(query, groupBy, aggregates);
+    }
+
+    /**
+     * Writes everything currently buffered.
+     */
+    public void flush() {
+        List<String> partitions;
+        synchronized (bufferLock) {
+            partitions = new ArrayList<>(buffers.keySet());
+        }
+        for (String partition : partitions) {
+            flushPartition(partition);
+        }
+    }
+
+    /**
+     * Stops the background flusher and, when configured, writes what is still buffered. Must run before the
+     * underlying Onyx client is closed.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        if (flushOnShutdown) {
+            flush();
+        } else if (getBuffered() > 0) {
+            log.warn("Discarding {} buffered customer writes on shutdown", getBuffered());
+        }
+    }
+
+    public int getBuffered() {
+        synchronized (bufferLock) {
+            return buffered;
+        }
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Write-behind flush failed", ex);
+        }
+    }
+
+    private void flushPartition(String partition) {
+        ReentrantLock lock = flushLock(partition);
+        lock.lock();
+        try {
+            List<Pending> batch;
+            while (!(batch = drain(partition)).isEmpty()) {
+                List<Customer> customers = batch.stream().map(Pending::customer).toList();
+                try {
+                    delegate.saveAll(customers);
+                    written.add(customers.size());
+                } catch (RuntimeException ex) {
+                    handleFailure(partition, batch, ex);
+                    return;
+                }
+                synchronized (bufferLock) {
+                    landed(partition, batch);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Pending> drain(String partition) {
+        synchronized (bufferLock) {
+            LinkedHashMap<String, Pending> buffer = buffers.get(partition);
+            if (buffer == null || buffer.isEmpty()) {
+                return List.of();
+            }
+            List<Pending> batch = new ArrayList<>(Math.min(maxBatchSize, buffer.size()));
+            Iterator<Pending> it = buffer.values().iterator();
+            while (it.hasNext() && batch.size() < maxBatchSize) {
+                batch.add(it.next());
+                it.remove();
+            }
+            buffered -= batch.size();
+            if (buffer.isEmpty()) {
+                buffers.remove(partition);
+            }
+            Map<String, Customer> writing = inFlight.computeIfAbsent(partition, key -> new HashMap<>());
+            batch.forEach(pending -> writing.put(pending.customer().getCustomerId(), pending.customer()));
+            return batch;
+        }
+    }
+
+    private void handleFailure(String partition, List<Pending> batch, RuntimeException ex) {
+        int requeued = 0;
+        synchronized (bufferLock) {
+            landed(partition, batch);
+            LinkedHashMap<String, Pending> buffer = buffers.computeIfAbsent(partition, key -> new LinkedHashMap<>());
+            for (Pending pending : batch) {
+                boolean retry = failurePolicy == FailurePolicy.RETRY && pending.attempts() + 1 < maxAttempts;
+                // A newer save of the same customer supersedes the failed one either way.
+                if (retry && !buffer.containsKey(pending.customer().getCustomerId())) {
+                    buffer.put(pending.customer().getCustomerId(), new Pending(pending.customer(), pending.attempts() + 1));
+                    buffered++;
+                    requeued++;
+                } else if (!buffer.containsKey(pending.customer().getCustomerId())) {
+                    dropped.increment();
+                }
+            }
+            if (buffer.isEmpty()) {
+                buffers.remove(partition);
+            }
+        }
+        log.warn("Write-behind flush of {} customers in partition '{}' failed; {} requeued",
+                batch.size(), partition, requeued, ex);
+    }
+
+    private Customer pending(String partition, String customerId) {
+        synchronized (bufferLock) {
+            LinkedHashMap<String, Pending> buffer = buffers.get(key(partition));
+            Pending pending = buffer == null ? null : buffer.get(customerId);
+            if (pending != null) {
+                return pending.customer();
+            }
+            Map<String, Customer> writing = inFlight.get(key(partition));
+            return writing == null ? null : writing.get(customerId);
+        }
+    }
+
+    /**
+     * Takes the customer's buffered save out of the buffer ahead of a direct write. If a flush is writing the
+     * customer right now, waits for it to finish first: its batch then lands before the caller's write, and if it
+     * failed, the requeued copy is taken out here instead of being written later.
+     */
+    private Pending takePending(String partition, String customerId) {
+        synchronized (bufferLock) {
+            Map<String, Customer> writing = inFlight.get(key(partition));
+            if (writing == null || !writing.containsKey(customerId)) {
+                return removePending(partition, customerId);
+            }
+        }
+        // Flushes drain under this lock, so once held the customer cannot be in flight again until it is released.
+        ReentrantLock lock = flushLock(key(partition));
+        lock.lock();
+        try {
+            synchronized (bufferLock) {
+                return removePending(partition, customerId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds bufferLock.
+    private void landed(String partition, List<Pending> batch) {
+        Map<String, Customer> writing = inFlight.get(partition);
+        if (writing == null) {
+            return;
+        }
+        batch.forEach(pending -> writing.remove(pending.customer().getCustomerId()));
+        if (writing.isEmpty()) {
+            inFlight.remove(partition);
+        }
+    }
+
+    private ReentrantLock flushLock(String partition) {
+        return flushLocks[Math.floorMod(partition.hashCode(), flushLocks.length)];
+    }
+
+    // Caller holds bufferLock.
+    private Pending removePending(String partition, String customerId) {
+        LinkedHashMap<String, Pending> buffer = buffers.get(key(partition));
+        if (buffer == null) {
+            return null;
+        }
+        Pending removed = buffer.remove(customerId);
+        if (removed != null) {
+            buffered--;
+            if (buffer.isEmpty()) {
+                buffers.remove(key(partition));
+            }
+        }
+        return removed;
+    }
+
+    private static String key(String partition) {
+        return partition == null ? "" : partition;
+    }
+
+    private record Pending(Customer customer, int attempts) {
+    }
+}
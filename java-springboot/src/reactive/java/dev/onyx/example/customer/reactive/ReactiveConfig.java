@@ -0,0 +1,85 @@
+package dev.onyx.example.customer.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.onyx.example.customer.config.OnyxProperties;
+import dev.onyx.example.customer.controller.WireFormats;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    public static final String ONYX_SCHEDULER = "onyxScheduler";
+
+    private final WireFormats wireFormats;
+
+    public ReactiveConfig(WireFormats wireFormats) {
+        this.wireFormats = wireFormats;
+    }
+
+    /**
+     * Threads that make the blocking Onyx calls so the event loop never waits on the network. Sized to the Onyx
+     * admission limit; calls beyond it queue here instead of holding threads.
+     */
+    @Bean(name = ONYX_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler onyxScheduler(OnyxProperties properties) {
+        int maxInFlight = properties.getConcurrency().getMaxInFlight();
+        int threads = maxInFlight > 0 ? maxInFlight : properties.getAsync().getPoolSize();
+        return Schedulers.newBoundedElastic(threads, properties.getAsync().getQueueCapacity(), "onyx-reactive");
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        // Without explicit types the Smile codecs fall back to Jackson's JSON types and take over JSON bodies.
+        MediaType smile = MediaType.parseMediaType(WireFormats.SMILE);
+        configurer.customCodecs().register(new Jackson2SmileEncoder(wireFormats.getSmileMapper(), smile));
+        configurer.customCodecs().register(new Jackson2SmileDecoder(wireFormats.getSmileMapper(), smile));
+        configurer.customCodecs().register(new CborEncoder(wireFormats.getCborMapper()));
+        configurer.customCodecs().register(new Jackson2CborDecoder(wireFormats.getCborMapper(), MediaType.APPLICATION_CBOR));
+    }
+
+    /**
+     * Spring's CBOR encoder only implements {@code encodeValue} and throws from {@code encode}, which WebFlux calls
+     * for every response body. A single value is encoded as is; a {@link Flux} is collected and written as one array,
+     * the same shape the JSON encoder produces for it.
+     */
+    private static final class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                       MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
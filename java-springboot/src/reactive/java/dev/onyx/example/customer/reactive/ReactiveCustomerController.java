@@ -0,0 +1,162 @@
+package dev.onyx.example.customer.reactive;
+
+import dev.onyx.example.customer.dto.BatchCustomerRequest;
+import dev.onyx.example.customer.dto.BatchResult;
+import dev.onyx.example.customer.dto.BulkDeleteRequest;
+import dev.onyx.example.customer.dto.BulkDeleteResult;
+import dev.onyx.example.customer.dto.CrossPartitionPage;
+import dev.onyx.example.customer.dto.CustomerFilter;
+import dev.onyx.example.customer.dto.CustomerPatchRequest;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.dto.MultiGetItem;
+import dev.onyx.example.customer.dto.MultiGetRequest;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.store.OnyxUnavailableException;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@code CustomerController} with the same routes and status codes.
+ */
+@RestController
+@RequestMapping("/api/customers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCustomerController {
+
+    private static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
+    private final ReactiveCustomerService customerService;
+
+    public ReactiveCustomerController(ReactiveCustomerService customerService) {
+        this.customerService = customerService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Customer>> create(@Valid @RequestBody CustomerRequest request) {
+        return customerService.create(request)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResult>> createBatch(@RequestBody List<BatchCustomerRequest> requests) {
+        return customerService.saveAll(requests).map(result -> {
+            HttpStatus status = result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(result);
+        });
+    }
+
+    @PostMapping("/_mget")
+    public Mono<List<MultiGetItem>> multiGet(@Valid @RequestBody MultiGetRequest request) {
+        return customerService.getAll(request.getCustomerIds(), request.getCountryCode());
+    }
+
+    @GetMapping("/_all")
+    public Mono<CrossPartitionPage> listAcrossPartitions(@RequestParam(name = "partitions", required = false) List<String> partitions,
+                                                         @RequestParam(name = "limit", required = false) Integer limit,
+                                                         CustomerFilter filter) {
+        return customerService.listAcrossPartitions(partitions, limit, filter);
+    }
+
+    @GetMapping("/stats")
+    public Mono<List<Map<String, Object>>> stats(@RequestParam(name = "countryCode", required = false) String countryCode,
+                                                 @RequestParam(name = "groupBy", required = false) List<String> groupBy,
+                                                 @RequestParam(name = "metrics", required = false) List<String> metrics,
+                                                 CustomerFilter filter) {
+        return customerService.stats(countryCode, groupBy, metrics, filter);
+    }
+
+    @GetMapping("/{customerId}")
+    public Mono<ResponseEntity<Customer>> getById(@PathVariable String customerId,
+                                                  @RequestParam(name = "countryCode", required = false) String countryCode) {
+        return customerService.get(customerId, countryCode)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * One bounded page, fetched whole before the response starts because its next-page token goes in a header.
+     * Demand from the client is not passed on to Onyx here; use {@link #stream} for that.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Flux<Customer>>> list(@RequestParam(name = "countryCode", required = false) String countryCode,
+                                                     @RequestParam(name = "pageSize", required = false) Integer pageSize,
+                                                     @RequestParam(name = "pageToken", required = false) String pageToken,
+                                                     CustomerFilter filter) {
+        return customerService.list(countryCode, pageSize, pageToken, filter).map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextPageToken() != null) {
+                response.header(NEXT_PAGE_TOKEN_HEADER, page.nextPageToken());
+            }
+            return response.body(Flux.fromIterable(page.customers()));
+        });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Customer> stream(@RequestParam(name = "countryCode", required = false) String countryCode,
+                                 @RequestParam(name = "pageSize", defaultValue = "500") int pageSize) {
+        return customerService.stream(countryCode, Math.max(1, pageSize));
+    }
+
+    @PutMapping("/{customerId}")
+    public Mono<Customer> update(@PathVariable String customerId,
+                                 @Valid @RequestBody CustomerRequest request,
+                                 @RequestParam(name = "countryCode", required = false) String countryCode) {
+        return customerService.update(customerId, request, countryCode);
+    }
+
+    @PatchMapping("/{customerId}")
+    public Mono<ResponseEntity<Void>> patch(@PathVariable String customerId,
+                                            @Valid @RequestBody CustomerPatchRequest request,
+                                            @RequestParam(name = "countryCode", required = false) String countryCode) {
+        return customerService.patch(customerId, request, countryCode)
+                .map(patched -> patched ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    @DeleteMapping
+    public Mono<ResponseEntity<BulkDeleteResult>> deleteAll(@Valid @RequestBody BulkDeleteRequest request) {
+        return customerService.deleteAll(request).map(result -> {
+            HttpStatus status = result.failed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(result);
+        });
+    }
+
+    @DeleteMapping("/{customerId}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String customerId,
+                                             @RequestParam(name = "countryCode", required = false) String countryCode) {
+        return customerService.delete(customerId, countryCode)
+                .map(deleted -> deleted ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    /**
+     * Same 503 as the servlet controller, with {@code Retry-After} when the store suggested a wait.
+     */
+    @ExceptionHandler(OnyxUnavailableException.class)
+    public ResponseEntity<ProblemDetail> unavailable(OnyxUnavailableException ex) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (ex.getRetryAfterMs() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString(Math.ceilDiv(ex.getRetryAfterMs(), 1_000)));
+        }
+        return response.body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+}
@@ -0,0 +1,114 @@
+package dev.onyx.example.customer.reactive;
+
+import dev.onyx.example.customer.dto.BatchCustomerRequest;
+import dev.onyx.example.customer.dto.BatchResult;
+import dev.onyx.example.customer.dto.BulkDeleteRequest;
+import dev.onyx.example.customer.dto.BulkDeleteResult;
+import dev.onyx.example.customer.dto.CrossPartitionPage;
+import dev.onyx.example.customer.dto.CustomerFilter;
+import dev.onyx.example.customer.dto.CustomerPage;
+import dev.onyx.example.customer.dto.CustomerPatchRequest;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.dto.MultiGetItem;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.service.CrossPartitionQueryService;
+import dev.onyx.example.customer.service.CustomerService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking view of {@link CustomerService}. The Onyx client only offers blocking calls, so each one runs on the
+ * bounded {@link ReactiveConfig#ONYX_SCHEDULER} and callers get a {@link Mono} or {@link Flux} that completes when it
+ * returns. Cache, validation, admission limits and metrics all still apply.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCustomerService {
+
+    private final CustomerService customerService;
+    private final CrossPartitionQueryService crossPartitionQueryService;
+    private final Scheduler scheduler;
+
+    public ReactiveCustomerService(CustomerService customerService,
+                                   CrossPartitionQueryService crossPartitionQueryService,
+                                   @Qualifier(ReactiveConfig.ONYX_SCHEDULER) Scheduler scheduler) {
+        this.customerService = customerService;
+        this.crossPartitionQueryService = crossPartitionQueryService;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<Customer> create(CustomerRequest request) {
+        return call(() -> customerService.create(request));
+    }
+
+    public Mono<BatchResult> saveAll(List<BatchCustomerRequest> requests) {
+        return call(() -> customerService.saveAll(requests));
+    }
+
+    public Mono<Customer> get(String customerId, String partition) {
+        return call(() -> customerService.get(customerId, partition).orElse(null));
+    }
+
+    public Mono<List<MultiGetItem>> getAll(List<String> customerIds, String partition) {
+        return call(() -> customerService.getAll(customerIds, partition));
+    }
+
+    public Mono<CustomerPage> list(String partition, Integer pageSize, String pageToken, CustomerFilter filter) {
+        return call(() -> customerService.list(partition, pageSize, pageToken, filter));
+    }
+
+    /**
+     * Every customer in the partition, fetched one page per downstream demand. A page is only requested from Onyx
+     * once the previous one has been consumed, so a slow client slows the scan instead of filling memory.
+     */
+    public Flux<Customer> stream(String partition, int pageSize) {
+        return Flux.<CustomerPage, String>generate(() -> "", (pageToken, sink) -> {
+                    CustomerPage page = customerService.list(partition, pageSize, pageToken.isEmpty() ? null : pageToken);
+                    sink.next(page);
+                    if (page.nextPageToken() == null) {
+                        sink.complete();
+                        return "";
+                    }
+                    return page.nextPageToken();
+                })
+                // Requests run on the scheduler too, so the blocking page fetch never lands on the event loop.
+                .subscribeOn(scheduler)
+                .concatMapIterable(CustomerPage::customers, 1);
+    }
+
+    public Mono<CrossPartitionPage> listAcrossPartitions(List<String> partitions, Integer limit, CustomerFilter filter) {
+        return call(() -> crossPartitionQueryService.list(partitions, limit, filter));
+    }
+
+    public Mono<List<Map<String, Object>>> stats(String partition, List<String> groupBy, List<String> metrics, CustomerFilter filter) {
+        return call(() -> customerService.stats(partition, groupBy, metrics, filter));
+    }
+
+    public Mono<Customer> update(String customerId, CustomerRequest request, String partition) {
+        return call(() -> customerService.update(customerId, request, partition));
+    }
+
+    public Mono<Boolean> patch(String customerId, CustomerPatchRequest request, String partition) {
+        return call(() -> customerService.patch(customerId, request, partition));
+    }
+
+    public Mono<Boolean> delete(String customerId, String partition) {
+        return call(() -> customerService.delete(customerId, partition));
+    }
+
+    public Mono<BulkDeleteResult> deleteAll(BulkDeleteRequest request) {
+        return call(() -> customerService.deleteAll(request));
+    }
+
+    private <T> Mono<T> call(Callable<T> blocking) {
+        return Mono.fromCallable(blocking).subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,61 @@
+package dev.onyx.example.customer;
+
+import dev.onyx.example.customer.dto.BatchCustomerRequest;
+import dev.onyx.example.customer.dto.CustomerRequest;
+import dev.onyx.example.customer.model.Customer;
+
+/**
+ * Customers and requests for tests, with just enough set to be told apart.
+ */
+public final class TestCustomers {
+
+    private TestCustomers() {
+    }
+
+    public static Customer customer(String customerId, String partition) {
+        Customer customer = new Customer();
+        customer.setCustomerId(customerId);
+        customer.setFirstName("First " + customerId);
+        customer.setCountryCode(partition);
+        return customer;
+    }
+
+    public static Customer customer(String customerId, String partition, int age) {
+        Customer customer = customer(customerId, partition);
+        customer.setAge(age);
+        return customer;
+    }
+
+    public static Customer customer(String customerId, String partition, int age, Float balance) {
+        Customer customer = customer(customerId, partition, age);
+        customer.setBalance(balance);
+        return customer;
+    }
+
+    /**
+     * A request that passes validation.
+     */
+    public static CustomerRequest request(String partition, int age) {
+        return valid(new CustomerRequest(), partition, age);
+    }
+
+    /**
+     * A valid batch entry; a null {@code customerId} asks for a new one.
+     */
+    public static BatchCustomerRequest batchRequest(String customerId, String partition, int age) {
+        BatchCustomerRequest request = valid(new BatchCustomerRequest(), partition, age);
+        request.setCustomerId(customerId);
+        return request;
+    }
+
+    private static <T extends CustomerRequest> T valid(T request, String partition, int age) {
+        request.setFirstName("Ada");
+        request.setLastName("Lovelace");
+        request.setEmail("ada@example.com");
+        request.setAge(age);
+        request.setIsActive(true);
+        request.setBalance(10f);
+        request.setCountryCode(partition);
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package dev.onyx.example.customer.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.model.ProfilePic;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerJsonTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new CustomerJsonModule());
+
+    @Test
+    void customerRoundTrips() throws Exception {
+        Customer customer = new Customer();
+        customer.setCustomerId("c1");
+        customer.setFirstName("Ada");
+        customer.setLastName("Lovelace");
+        customer.setEmail("ada@example.com");
+        customer.setAge(36);
+        customer.setDateCreated("2024-01-02T03:04:05Z");
+        customer.setIsActive(true);
+        customer.setBalance(12.5f);
+        customer.setProfilePic(new ProfilePic("https://example.com/ada.png", "image/png", 3_000_000_000L));
+        customer.setCountryCode("GB");
+
+        for (Customer read : new Customer[] {
+                mapper.readValue(mapper.writeValueAsBytes(customer), Customer.class),
+                CustomerJson.fromBytes(CustomerJson.toBytes(customer))}) {
+            assertThat(read.getCustomerId()).isEqualTo("c1");
+            assertThat(read.getFirstName()).isEqualTo("Ada");
+            assertThat(read.getLastName()).isEqualTo("Lovelace");
+            assertThat(read.getEmail()).isEqualTo("ada@example.com");
+            assertThat(read.getAge()).isEqualTo(36);
+            assertThat(read.getDateCreated()).isEqualTo("2024-01-02T03:04:05Z");
+            assertThat(read.getIsActive()).isTrue();
+            assertThat(read.getBalance()).isEqualTo(12.5f);
+            assertThat(read.getProfilePic().getUrl()).isEqualTo("https://example.com/ada.png");
+            assertThat(read.getProfilePic().getContentType()).isEqualTo("image/png");
+            assertThat(read.getProfilePic().getSizeBytes()).isEqualTo(3_000_000_000L);
+            assertThat(read.getCountryCode()).isEqualTo("GB");
+        }
+    }
+
+    @Test
+    void unknownFieldsAndNullsAreSkipped() throws Exception {
+        Customer read = read("{\"customerId\":\"c1\",\"nickname\":{\"a\":[1,2]},\"age\":null,\"email\":\"\"}");
+
+        assertThat(read.getCustomerId()).isEqualTo("c1");
+        assertThat(read.getAge()).isNull();
+        assertThat(read.getEmail()).isEqualTo("");
+    }
+
+    @Test
+    void fractionalNumbersAreTruncatedToIntegers() throws Exception {
+        assertThat(read("{\"age\":36.7}").getAge()).isEqualTo(36);
+    }
+
+    @Test
+    void integerStringsAreCoerced() throws Exception {
+        assertThat(read("{\"age\":\" 36 \"}").getAge()).isEqualTo(36);
+        assertThat(read("{\"age\":\"\"}").getAge()).isNull();
+        assertThat(read("{\"balance\":\"12.5\",\"isActive\":\"TRUE\"}").getBalance()).isEqualTo(12.5f);
+    }
+
+    @Test
+    void fractionalStringsAreRejectedForIntegers() {
+        assertThatThrownBy(() -> read("{\"age\":\"36.7\"}")).isInstanceOf(InvalidFormatException.class);
+        assertThatThrownBy(() -> read("{\"profilePic\":{\"sizeBytes\":\"1.5\"}}")).isInstanceOf(InvalidFormatException.class);
+    }
+
+    @Test
+    void outOfRangeIntegersAreRejected() {
+        assertThatThrownBy(() -> read("{\"age\":3000000000}")).isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void mismatchedTokensAreRejected() {
+        assertThatThrownBy(() -> read("{\"age\":true}")).isInstanceOf(JsonProcessingException.class);
+        assertThatThrownBy(() -> read("{\"isActive\":\"yes\"}")).isInstanceOf(InvalidFormatException.class);
+        assertThatThrownBy(() -> read("[]")).isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void bytesOutsideAMapperFailWithoutAContext() {
+        assertThatThrownBy(() -> CustomerJson.fromBytes("{\"age\":\"36.7\"}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    private Customer read(String json) throws Exception {
+        return mapper.readValue(json, Customer.class);
+    }
+}
@@ -0,0 +1,111 @@
+package dev.onyx.example.customer.service;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import static dev.onyx.example.customer.TestCustomers.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCacheTest {
+
+    @Test
+    void returnsWhatWasPut() {
+        CustomerCache cache = new CustomerCache(true, 10, 60_000);
+        cache.put("US", customer("c1", "US"));
+
+        assertThat(cache.get("US", "c1").orElseThrow().getCustomerId()).isEqualTo("c1");
+        assertThat(cache.get("CA", "c1")).isEmpty();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        CustomerCache cache = new CustomerCache(true, 2, 60_000);
+        cache.put("US", customer("c1", "US"));
+        cache.put("US", customer("c2", "US"));
+        cache.get("US", "c1");
+        cache.put("US", customer("c3", "US"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("US", "c1")).isPresent();
+        assertThat(cache.get("US", "c2")).isEmpty();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntriesAreOnlyServedAsStale() throws InterruptedException {
+        CustomerCache cache = new CustomerCache(true, 10, 1, 60_000);
+        cache.put("US", customer("c1", "US"));
+        Thread.sleep(5);
+
+        assertThat(cache.get("US", "c1")).isEmpty();
+        assertThat(cache.getStale("US", "c1")).isPresent();
+        assertThat(cache.getStaleHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void entriesPastTheStaleWindowAreDroppedOnLookup() throws InterruptedException {
+        CustomerCache cache = new CustomerCache(true, 10, 1, 1);
+        cache.put("US", customer("c1", "US"));
+        Thread.sleep(5);
+
+        assertThat(cache.get("US", "c1")).isEmpty();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void putBackIsSkippedAfterAConcurrentInvalidate() {
+        CustomerCache cache = new CustomerCache(true, 10, 60_000);
+        long generation = cache.generation("US", "c1");
+        cache.invalidate("US", "c1");
+
+        assertThat(cache.putIfUnchanged("US", customer("c1", "US"), generation)).isFalse();
+        assertThat(cache.get("US", "c1")).isEmpty();
+    }
+
+    @Test
+    void putBackIsSkippedAfterAConcurrentWrite() {
+        CustomerCache cache = new CustomerCache(true, 10, 60_000);
+        long generation = cache.generation("US", "c1");
+        Customer written = customer("c1", "US");
+        written.setAge(31);
+        cache.put("US", written);
+
+        Customer stale = customer("c1", "US");
+        stale.setAge(30);
+        assertThat(cache.putIfUnchanged("US", stale, generation)).isFalse();
+        assertThat(cache.get("US", "c1").orElseThrow().getAge()).isEqualTo(31);
+    }
+
+    @Test
+    void putBackIsSkippedAfterThePartitionIsInvalidated() {
+        CustomerCache cache = new CustomerCache(true, 10, 60_000);
+        long generation = cache.generation("US", "c1");
+        cache.invalidatePartition("US");
+
+        assertThat(cache.putIfUnchanged("US", customer("c1", "US"), generation)).isFalse();
+    }
+
+    @Test
+    void putBackWithoutConcurrentWritesIsCached() {
+        CustomerCache cache = new CustomerCache(true, 10, 60_000);
+        long generation = cache.generation("US", "c1");
+        cache.put("US", customer("c2", "US"));
+
+        assertThat(cache.putIfUnchanged("US", customer("c1", "US"), generation)).isTrue();
+        assertThat(cache.get("US", "c1")).isPresent();
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        CustomerCache cache = new CustomerCache(false, 10, 60_000);
+        cache.put("US", customer("c1", "US"));
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.get("US", "c1")).isEmpty();
+        assertThat(cache.putIfUnchanged("US", customer("c1", "US"), cache.generation("US", "c1"))).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+}
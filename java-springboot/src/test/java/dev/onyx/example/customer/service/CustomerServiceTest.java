@@ -0,0 +1,361 @@
+package dev.onyx.example.customer.service;
+
+import dev.onyx.example.customer.config.OnyxProperties;
+import dev.onyx.example.customer.dto.BatchCustomerRequest;
+import dev.onyx.example.customer.dto.BatchItemResult;
+import dev.onyx.example.customer.dto.BatchResult;
+import dev.onyx.example.customer.dto.BulkDeleteItem;
+import dev.onyx.example.customer.dto.BulkDeleteRequest;
+import dev.onyx.example.customer.dto.BulkDeleteResult;
+import dev.onyx.example.customer.dto.CustomerPatchRequest;
+import dev.onyx.example.customer.dto.CustomerFilter;
+import dev.onyx.example.customer.dto.CustomerPage;
+import dev.onyx.example.customer.model.Customer;
+import dev.onyx.example.customer.store.CustomerAggregate;
+import dev.onyx.example.customer.store.CustomerField;
+import dev.onyx.example.customer.store.CustomerQuery;
+import dev.onyx.example.customer.store.CustomerQueryPage;
+import dev.onyx.example.customer.store.CustomerStore;
+import dev.onyx.example.customer.store.InMemoryCustomerStore;
+import dev.onyx.example.customer.store.OnyxUnavailableException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static dev.onyx.example.customer.TestCustomers.batchRequest;
+import static dev.onyx.example.customer.TestCustomers.customer;
+import static dev.onyx.example.customer.TestCustomers.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerServiceTest {
+
+    private static final String CREATED_AT = "2020-01-01T00:00:00Z";
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicBoolean countChangedRows = new AtomicBoolean();
+    private final AtomicReference<String> failDeletesOf = new AtomicReference<>();
+    private final AtomicReference<String> failSavesOf = new AtomicReference<>();
+
+    private final InMemoryCustomerStore onyx = new InMemoryCustomerStore(0, 0, 0) {
+        // Like a store that counts changed rather than matched rows, when the replace changed nothing.
+        @Override
+        public int update(String customerId, String partition, Map<String, Object> changes) {
+            int updated = super.update(customerId, partition, changes);
+            return countChangedRows.get() ? 0 : updated;
+        }
+
+        @Override
+        public CustomerQueryPage query(CustomerQuery query) {
+            queries.incrementAndGet();
+            return super.query(query);
+        }
+
+        @Override
+        public void saveAll(List<Customer> customers) {
+            String failing = failSavesOf.get();
+            if (customers.stream().anyMatch(customer -> customer.getCustomerId().equals(failing))) {
+                throw new OnyxUnavailableException("Onyx is down");
+            }
+            super.saveAll(customers);
+        }
+
+        @Override
+        public int deleteMatching(CustomerQuery query) {
+            String failing = failDeletesOf.get();
+            if (failing != null && query.getCustomerIds() != null && query.getCustomerIds().contains(failing)) {
+                throw new OnyxUnavailableException("Onyx is down");
+            }
+            return super.deleteMatching(query);
+        }
+    };
+
+    private final CustomerService service = service(onyx);
+
+    @Test
+    void updateIsReturnedWithoutReadingItBack() {
+        onyx.save(stored("c1", 30));
+
+        Customer updated = service.update("c1", request("US", 31), "US");
+
+        assertThat(updated.getAge()).isEqualTo(31);
+        assertThat(updated.getDateCreated()).isNull();
+        assertThat(queries.get()).isZero();
+        Customer read = service.get("c1", "US").orElseThrow();
+        assertThat(read.getAge()).isEqualTo(31);
+        assertThat(read.getDateCreated()).isEqualTo(CREATED_AT);
+    }
+
+    @Test
+    void updateOfACachedCustomerKeepsItsDateCreated() {
+        onyx.save(stored("c1", 30));
+        service.get("c1", "US");
+
+        Customer updated = service.update("c1", request("US", 31), "US");
+
+        assertThat(updated.getDateCreated()).isEqualTo(CREATED_AT);
+        assertThat(queries.get()).isZero();
+    }
+
+    @Test
+    void zeroUpdateCountIsConfirmedBeforeCreating() {
+        onyx.save(stored("c1", 30));
+        countChangedRows.set(true);
+
+        Customer updated = service.update("c1", request("US", 30), "US");
+
+        assertThat(updated.getDateCreated()).isEqualTo(CREATED_AT);
+        assertThat(queries.get()).isEqualTo(1);
+        assertThat(onyx.findById("c1", "US").getDateCreated()).isEqualTo(CREATED_AT);
+    }
+
+    @Test
+    void updateOfAMissingCustomerCreatesIt() {
+        Customer updated = service.update("c1", request("US", 31), "US");
+
+        assertThat(updated.getDateCreated()).isNotNull();
+        assertThat(onyx.findById("c1", "US").getAge()).isEqualTo(31);
+    }
+
+    @Test
+    void patchOnlyReportsCustomersThatExist() {
+        onyx.save(stored("c1", 30));
+        CustomerPatchRequest patch = new CustomerPatchRequest();
+        patch.setAge(31);
+
+        assertThat(service.patch("c2", patch, "US")).isFalse();
+        assertThat(service.patch("c1", patch, "US")).isTrue();
+        assertThat(onyx.findById("c1", "US").getAge()).isEqualTo(31);
+        assertThat(onyx.findById("c2", "US")).isNull();
+    }
+
+    @Test
+    void statsAreScannedWhenTheStoreCannotAggregate() {
+        seed();
+
+        List<Map<String, Object>> rows = service.stats("US", List.of("isActive"),
+                List.of("count", "avg:age", "sum:balance", "max:age"), null);
+
+        assertThat(rows).containsExactlyInAnyOrder(
+                Map.of("isActive", true, "count(*)", 2L, "avg(age)", 25.0, "sum(balance)", 30.0, "max(age)", 30),
+                Map.of("isActive", false, "count(*)", 1L, "avg(age)", 40.0, "sum(balance)", 5.0, "max(age)", 40));
+    }
+
+    @Test
+    void statsOnlyCountMatchingCustomers() {
+        seed();
+        CustomerFilter filter = new CustomerFilter();
+        filter.setMinAge(25);
+
+        assertThat(service.stats("US", null, null, filter)).containsExactly(Map.of("count(*)", 2L));
+        assertThat(service.stats("FR", null, null, null)).containsExactly(Map.of("count(*)", 0L));
+    }
+
+    @Test
+    void statsArePushedDownWhenTheStoreCanAggregate() {
+        List<Map<String, Object>> computed = List.of(Map.of("count(*)", 7L));
+        CustomerStore aggregating = new InMemoryCustomerStore(0, 0, 0) {
+            @Override
+            public CustomerQueryPage query(CustomerQuery query) {
+                queries.incrementAndGet();
+                return super.query(query);
+            }
+
+            @Override
+            public List<Map<String, Object>> aggregate(CustomerQuery query, List<CustomerField> groupBy,
+                                                       List<CustomerAggregate> aggregates) {
+                return computed;
+            }
+        };
+
+        assertThat(service(aggregating).stats("US", null, List.of("count"), null)).isEqualTo(computed);
+        assertThat(queries.get()).isZero();
+    }
+
+    @Test
+    void statsRejectMetricsThatCannotBeComputed() {
+        assertThatThrownBy(() -> service.stats("US", null, List.of("median:age"), null))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> service.stats("US", null, List.of("avg:email"), null))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> service.stats("US", null, List.of("sum"), null))
+                .isInstanceOf(InvalidQueryException.class);
+    }
+
+    @Test
+    void batchEntriesWithAnIdReplaceTheStoredCustomer() {
+        onyx.save(stored("c1", 30));
+
+        // Chunks of two: c1 and a new id, then c7 on its own; each chunk looks up its supplied ids once.
+        BatchResult result = service.saveAll(List.of(
+                batchRequest("c1", "US", 31), batchRequest(null, "US", 25), batchRequest("c7", "US", 40)));
+
+        assertThat(result.items()).extracting(BatchItemResult::status).containsExactly(
+                BatchItemResult.Status.UPDATED, BatchItemResult.Status.CREATED, BatchItemResult.Status.CREATED);
+        assertThat(result.succeeded()).isEqualTo(3);
+        assertThat(onyx.findById("c1", "US").getAge()).isEqualTo(31);
+        assertThat(onyx.findById("c1", "US").getDateCreated()).isEqualTo(CREATED_AT);
+        assertThat(onyx.findById("c7", "US").getDateCreated()).isNotNull();
+        assertThat(onyx.findById(result.items().get(1).customerId(), "US")).isNotNull();
+        assertThat(queries.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidAndFailedBatchEntriesAreReportedOnTheirOwn() {
+        failSavesOf.set("c3");
+        BatchCustomerRequest invalid = batchRequest("c9", "US", 200);
+
+        // c1 and c2 share the first chunk; c3 fails alone in the second.
+        BatchResult result = service.saveAll(List.of(
+                batchRequest("c1", "US", 20), invalid, batchRequest("c2", "US", 30), batchRequest("c3", "US", 40)));
+
+        assertThat(result.items()).extracting(BatchItemResult::status).containsExactly(
+                BatchItemResult.Status.CREATED, BatchItemResult.Status.INVALID,
+                BatchItemResult.Status.CREATED, BatchItemResult.Status.FAILED);
+        assertThat(result.items().get(3)).isEqualTo(BatchItemResult.failed(3, "c3", "Onyx is down"));
+        assertThat(result.succeeded()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(onyx.findById("c9", "US")).isNull();
+        assertThat(onyx.findById("c3", "US")).isNull();
+    }
+
+    @Test
+    void bulkDeleteReportsEveryIdOnce() {
+        seed();
+
+        BulkDeleteResult result = service.deleteAll(deleteIds("c1", "c9", "c2", "c1"));
+
+        assertThat(result.items()).containsExactly(
+                BulkDeleteItem.deleted("c1"), BulkDeleteItem.notFound("c9"), BulkDeleteItem.deleted("c2"));
+        assertThat(result.deleted()).isEqualTo(2);
+        assertThat(result.notFound()).isEqualTo(1);
+        assertThat(result.failed()).isZero();
+        assertThat(onyx.findById("c3", "US")).isNotNull();
+    }
+
+    @Test
+    void failedBulkDeleteChunkOnlyFailsItsOwnIds() {
+        seed();
+        failDeletesOf.set("c3");
+
+        // Chunks of two: c1 and c2 go through, c3 and c4 fail together.
+        BulkDeleteResult result = service.deleteAll(deleteIds("c1", "c2", "c3", "c4"));
+
+        assertThat(result.deleted()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.items().get(2)).isEqualTo(BulkDeleteItem.failed("c3", "Onyx is down"));
+        assertThat(result.items().get(3).status()).isEqualTo(BulkDeleteItem.Status.FAILED);
+        assertThat(onyx.findById("c1", "US")).isNull();
+        assertThat(onyx.findById("c3", "US")).isNotNull();
+        assertThat(queries.get()).isEqualTo(2);
+    }
+
+    @Test
+    void predicateBulkDeleteReportsTheMatchedCount() {
+        seed();
+        CustomerFilter where = new CustomerFilter();
+        where.setIsActive(true);
+        BulkDeleteRequest request = new BulkDeleteRequest();
+        request.setCountryCode("US");
+        request.setWhere(where);
+
+        BulkDeleteResult result = service.deleteAll(request);
+
+        assertThat(result.deleted()).isEqualTo(2);
+        assertThat(result.items()).isNull();
+        assertThat(onyx.findById("c3", "US")).isNotNull();
+        assertThat(onyx.findById("c4", "CA")).isNotNull();
+    }
+
+    @Test
+    void bulkDeleteTakesIdsOrAPredicateButNotBoth() {
+        BulkDeleteRequest both = deleteIds("c1");
+        CustomerFilter where = new CustomerFilter();
+        where.setIsActive(true);
+        both.setWhere(where);
+
+        assertThatThrownBy(() -> service.deleteAll(both)).isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> service.deleteAll(new BulkDeleteRequest())).isInstanceOf(InvalidQueryException.class);
+    }
+
+    @Test
+    void pageTokensWalkThePartition() {
+        for (int i = 0; i < 5; i++) {
+            onyx.save(customer("c" + i, "US", 40 - i));
+        }
+        onyx.save(customer("c9", "CA", 30));
+        CustomerFilter byAge = new CustomerFilter();
+        byAge.setSort(List.of("age"));
+
+        assertThat(pageThrough(null)).containsExactly("c0", "c1", "c2", "c3", "c4");
+        assertThat(pageThrough(byAge)).containsExactly("c4", "c3", "c2", "c1", "c0");
+    }
+
+    @Test
+    void pageTokensOnlyFitTheQueryThatIssuedThem() {
+        for (int i = 0; i < 5; i++) {
+            onyx.save(customer("c" + i, "US", 40 - i));
+        }
+        String unsorted = service.list("US", 2, null, null).nextPageToken();
+        CustomerFilter byAge = new CustomerFilter();
+        byAge.setSort(List.of("age"));
+
+        assertThatThrownBy(() -> service.list("CA", 2, unsorted, null)).isInstanceOf(InvalidPageTokenException.class);
+        assertThatThrownBy(() -> service.list("US", 2, unsorted, byAge)).isInstanceOf(InvalidPageTokenException.class);
+        assertThatThrownBy(() -> service.list("US", 2, "not a token", null)).isInstanceOf(InvalidPageTokenException.class);
+    }
+
+    private List<String> pageThrough(CustomerFilter filter) {
+        List<String> ids = new ArrayList<>();
+        String pageToken = null;
+        do {
+            CustomerPage page = service.list("US", 2, pageToken, filter);
+            page.customers().forEach(customer -> ids.add(customer.getCustomerId()));
+            pageToken = page.nextPageToken();
+        } while (pageToken != null);
+        return ids;
+    }
+
+    private static BulkDeleteRequest deleteIds(String... customerIds) {
+        BulkDeleteRequest request = new BulkDeleteRequest();
+        request.setCountryCode("US");
+        request.setCustomerIds(List.of(customerIds));
+        return request;
+    }
+
+    private void seed() {
+        onyx.save(active(customer("c1", "US", 20, 10f), true));
+        onyx.save(active(customer("c2", "US", 30, 20f), true));
+        onyx.save(active(customer("c3", "US", 40, 5f), false));
+        onyx.save(active(customer("c4", "CA", 50, 100f), true));
+    }
+
+    private static Customer active(Customer customer, boolean active) {
+        customer.setIsActive(active);
+        return customer;
+    }
+
+    private static Customer stored(String customerId, int age) {
+        Customer customer = customer(customerId, "US", age);
+        customer.setDateCreated(CREATED_AT);
+        return customer;
+    }
+
+    private static CustomerService service(CustomerStore store) {
+        return new CustomerService(store, properties(), new CustomerCache(true, 100, 60_000),
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    private static OnyxProperties properties() {
+        OnyxProperties properties = new OnyxProperties();
+        properties.setPartition("US");
+        properties.getBatch().setChunkSize(2);
+        return properties;
+    }
+}
@@ -0,0 +1,126 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakingCustomerStoreTest {
+
+    private static final long OPEN_MS = 100;
+
+    private final Set<String> failingPartitions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final InMemoryCustomerStore onyx = new InMemoryCustomerStore(0, 0, 0) {
+        @Override
+        public Customer findById(String customerId, String partition) {
+            calls.incrementAndGet();
+            if ("bad-id".equals(customerId)) {
+                throw new IllegalArgumentException("bad id");
+            }
+            if (failingPartitions.contains(partition)) {
+                throw new OnyxUnavailableException("Onyx is down");
+            }
+            return super.findById(customerId, partition);
+        }
+    };
+
+    private final CircuitBreakingCustomerStore store = new CircuitBreakingCustomerStore(
+            onyx, new CircuitBreakingCustomerStore.Policy(10, 4, 0.5, OPEN_MS, 1), new KnownPartitions(List.of("US", "CA"), 0));
+
+    @Test
+    void opensOnceEnoughCallsFail() {
+        failingPartitions.add("US");
+        for (int i = 0; i < 3; i++) {
+            failLookup("US");
+        }
+        assertThat(store.getState("findById", "US")).isEqualTo(CircuitBreakingCustomerStore.State.CLOSED);
+
+        failLookup("US");
+        assertThat(store.getState("findById", "US")).isEqualTo(CircuitBreakingCustomerStore.State.OPEN);
+        assertThat(store.getOpenedCount()).isEqualTo(1);
+        assertThat(store.getOpenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCallsWhileOpen() {
+        open("US");
+        int before = calls.get();
+
+        assertThatThrownBy(() -> store.findById("c1", "US")).isInstanceOf(OnyxRejectedException.class);
+        assertThat(calls.get()).isEqualTo(before);
+        assertThat(store.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void successfulProbeClosesTheCircuit() throws InterruptedException {
+        open("US");
+        failingPartitions.clear();
+        Thread.sleep(OPEN_MS * 2);
+
+        assertThat(store.findById("c1", "US")).isNull();
+        assertThat(store.getState("findById", "US")).isEqualTo(CircuitBreakingCustomerStore.State.CLOSED);
+        assertThat(store.getOpenCount()).isZero();
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() throws InterruptedException {
+        open("US");
+        Thread.sleep(OPEN_MS * 2);
+
+        failLookup("US");
+        assertThat(store.getState("findById", "US")).isEqualTo(CircuitBreakingCustomerStore.State.OPEN);
+        assertThat(store.getOpenedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void callerErrorsAreNotCounted() {
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> store.findById("bad-id", "US")).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(store.getState("findById", "US")).isEqualTo(CircuitBreakingCustomerStore.State.CLOSED);
+    }
+
+    @Test
+    void circuitsAreKeptPerPartitionAndOperation() {
+        open("US");
+
+        assertThat(store.findById("c1", "CA")).isNull();
+        assertThat(store.findByIds(List.of("c1"), "US")).isEmpty();
+        assertThat(store.getState("findById", "CA")).isEqualTo(CircuitBreakingCustomerStore.State.CLOSED);
+        assertThat(store.getState("findByIds", "US")).isEqualTo(CircuitBreakingCustomerStore.State.CLOSED);
+    }
+
+    @Test
+    void untrackedPartitionsShareOneCircuit() {
+        open("XX");
+
+        assertThat(store.getState("findById", "YY")).isEqualTo(CircuitBreakingCustomerStore.State.OPEN);
+        assertThatThrownBy(() -> store.findById("c1", "YY"))
+                .isInstanceOf(OnyxRejectedException.class)
+                .hasMessageContaining(KnownPartitions.OTHER);
+        assertThat(store.getState("findById", "US")).isEqualTo(CircuitBreakingCustomerStore.State.CLOSED);
+        assertThat(store.getOpenCount()).isEqualTo(1);
+    }
+
+    private void open(String partition) {
+        failingPartitions.add(partition);
+        for (int i = 0; i < 4; i++) {
+            failLookup(partition);
+        }
+        assertThat(store.getState("findById", partition)).isEqualTo(CircuitBreakingCustomerStore.State.OPEN);
+    }
+
+    private void failLookup(String partition) {
+        assertThatThrownBy(() -> store.findById("c1", partition))
+                .isInstanceOf(OnyxUnavailableException.class)
+                .isNotInstanceOf(OnyxRejectedException.class);
+    }
+}
@@ -0,0 +1,146 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitedCustomerStoreTest {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    // "slow" blocks until released, "down" fails, "bad" is the caller's mistake.
+    private final InMemoryCustomerStore onyx = new InMemoryCustomerStore(0, 0, 0) {
+        @Override
+        public Customer findById(String customerId, String partition) {
+            switch (customerId) {
+                case "slow" -> {
+                    entered.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                case "down" -> throw new OnyxUnavailableException("Onyx is down");
+                case "bad" -> throw new IllegalArgumentException("bad id");
+                default -> {
+                }
+            }
+            return super.findById(customerId, partition);
+        }
+    };
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void rejectsOnceTheAcquireTimeoutPasses() throws Exception {
+        ConcurrencyLimitedCustomerStore store = new ConcurrencyLimitedCustomerStore(onyx, 1, 50);
+        callers.submit(() -> store.findById("slow", "US"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> store.findById("c1", "US")).isInstanceOf(OnyxRejectedException.class);
+        assertThat(store.getRejectedCount()).isEqualTo(1);
+        assertThat(store.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void queuedCallRunsWhenASlotFrees() throws Exception {
+        ConcurrencyLimitedCustomerStore store = new ConcurrencyLimitedCustomerStore(onyx, 1, 5_000);
+        Future<?> slow = callers.submit(() -> store.findById("slow", "US"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Customer> queued = callers.submit(() -> store.findById("c1", "US"));
+        awaitQueued(store);
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(store.getRejectedCount()).isZero();
+        assertThat(store.getInFlight()).isZero();
+    }
+
+    @Test
+    void failuresShrinkTheLimitDownToTheMinimum() {
+        ConcurrencyLimitedCustomerStore store = new ConcurrencyLimitedCustomerStore(onyx, adaptive(0));
+
+        assertThat(store.getLimit()).isEqualTo(8);
+        failCall(store);
+        assertThat(store.getLimit()).isEqualTo(4);
+        for (int i = 0; i < 5; i++) {
+            failCall(store);
+        }
+        assertThat(store.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void successesGrowTheLimitBack() {
+        ConcurrencyLimitedCustomerStore store = new ConcurrencyLimitedCustomerStore(onyx, adaptive(0));
+        for (int i = 0; i < 3; i++) {
+            failCall(store);
+        }
+        assertThat(store.getLimit()).isEqualTo(2);
+
+        for (int i = 0; i < 10; i++) {
+            store.findById("c1", "US");
+        }
+        assertThat(store.getLimit()).isGreaterThan(2);
+    }
+
+    @Test
+    void slowCallsShrinkTheLimit() {
+        ConcurrencyLimitedCustomerStore store = new ConcurrencyLimitedCustomerStore(
+                new InMemoryCustomerStore(20, 0, 0), adaptive(5));
+
+        store.findById("c1", "US");
+        assertThat(store.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void callerErrorsDoNotShrinkTheLimit() {
+        ConcurrencyLimitedCustomerStore store = new ConcurrencyLimitedCustomerStore(onyx, adaptive(0));
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> store.findById("bad", "US")).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(store.getLimit()).isEqualTo(8);
+        assertThat(store.getInFlight()).isZero();
+    }
+
+    @Test
+    void fixedLimitIgnoresFailures() {
+        ConcurrencyLimitedCustomerStore store = new ConcurrencyLimitedCustomerStore(onyx, 8, 50);
+
+        failCall(store);
+        assertThat(store.getLimit()).isEqualTo(8);
+    }
+
+    private static ConcurrencyLimitedCustomerStore.Policy adaptive(long slowCallMs) {
+        return new ConcurrencyLimitedCustomerStore.Policy(2, 8, 50, true, 0.5, slowCallMs);
+    }
+
+    private static void failCall(ConcurrencyLimitedCustomerStore store) {
+        assertThatThrownBy(() -> store.findById("down", "US")).isInstanceOf(OnyxUnavailableException.class);
+    }
+
+    private static void awaitQueued(ConcurrencyLimitedCustomerStore store) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.getQueued() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(store.getQueued()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,154 @@
+package dev.onyx.example.customer.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static dev.onyx.example.customer.TestCustomers.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerLogTest {
+
+    private static final long CAPACITY = 16 * 1024;
+    private static final long TTL_MS = 60_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void customersSurviveAReopen() throws IOException {
+        Path file = dir.resolve("customers.log");
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            log.put("US", customer("c1", "US", 30));
+            log.put("US", customer("c1", "US", 31));
+            log.put("CA", customer("c2", "CA", 40));
+            log.put("US", customer("c3", "US", 50));
+            log.remove("US", "c3");
+        }
+
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            assertThat(log.get("US", "c1").getAge()).isEqualTo(31);
+            assertThat(log.get("CA", "c2").getAge()).isEqualTo(40);
+            assertThat(log.get("US", "c3")).isNull();
+            assertThat(log.get("US", "c2")).isNull();
+            assertThat(log.size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void tornRecordEndsTheLog() throws IOException {
+        Path file = dir.resolve("customers.log");
+        long tornAt;
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            log.put("US", customer("c1", "US", 30));
+            tornAt = log.getUsedBytes();
+            log.put("US", customer("c2", "US", 40));
+            log.put("US", customer("c3", "US", 50));
+        }
+        // Flip a byte inside the second record, as if the crash hit while it was being written.
+        corrupt(file, tornAt + 12);
+
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            assertThat(log.get("US", "c1").getAge()).isEqualTo(30);
+            assertThat(log.get("US", "c2")).isNull();
+            assertThat(log.get("US", "c3")).isNull();
+            assertThat(log.getUsedBytes()).isEqualTo(tornAt);
+
+            log.put("US", customer("c4", "US", 60));
+        }
+
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            assertThat(log.get("US", "c1")).isNotNull();
+            assertThat(log.get("US", "c4").getAge()).isEqualTo(60);
+            assertThat(log.size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void removedPartitionStaysRemovedAfterAReopen() throws IOException {
+        Path file = dir.resolve("customers.log");
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            log.put("US", customer("c1", "US", 30));
+            log.put("US", customer("c2", "US", 30));
+            log.put("CA", customer("c3", "CA", 30));
+            log.removePartition("US");
+            assertThat(log.get("US", "c1")).isNull();
+            assertThat(log.size()).isEqualTo(1);
+        }
+
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            assertThat(log.get("US", "c1")).isNull();
+            assertThat(log.get("US", "c2")).isNull();
+            assertThat(log.get("CA", "c3")).isNotNull();
+        }
+    }
+
+    @Test
+    void compactionKeepsTheNewestCustomers() throws IOException {
+        Path file = dir.resolve("customers.log");
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            for (int i = 0; i < 1_000; i++) {
+                log.put("US", customer("c" + i, "US", i % 100));
+            }
+
+            assertThat(log.getCompactionCount()).isPositive();
+            assertThat(log.getUsedBytes()).isLessThanOrEqualTo(CAPACITY);
+            assertThat(log.size()).isLessThan(1_000);
+            assertThat(log.get("US", "c999").getAge()).isEqualTo(99);
+            assertThat(log.get("US", "c0")).isNull();
+        }
+        assertThat(Files.size(file)).isEqualTo(CAPACITY);
+
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            assertThat(log.get("US", "c999").getAge()).isEqualTo(99);
+        }
+    }
+
+    @Test
+    void expiredCustomersAreNotServed() throws IOException {
+        try (CustomerLog log = new CustomerLog(dir.resolve("customers.log"), CAPACITY, 0)) {
+            log.put("US", customer("c1", "US", 30));
+
+            assertThat(log.get("US", "c1")).isNull();
+        }
+    }
+
+    @Test
+    void reopeningAtADifferentCapacityRewritesTheFile() throws IOException {
+        Path file = dir.resolve("customers.log");
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            log.put("US", customer("c1", "US", 30));
+        }
+
+        try (CustomerLog log = new CustomerLog(file, CAPACITY * 2, TTL_MS)) {
+            assertThat(log.get("US", "c1").getAge()).isEqualTo(30);
+            assertThat(log.getCompactionCount()).isEqualTo(1);
+        }
+        assertThat(Files.size(file)).isEqualTo(CAPACITY * 2);
+    }
+
+    @Test
+    void fileCanOnlyBeOpenedOnce() throws IOException {
+        Path file = dir.resolve("customers.log");
+        try (CustomerLog log = new CustomerLog(file, CAPACITY, TTL_MS)) {
+            assertThatThrownBy(() -> new CustomerLog(file, CAPACITY, TTL_MS)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static void corrupt(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.flip();
+            value.put(0, (byte) ~value.get(0));
+            channel.write(value, position);
+        }
+    }
+}
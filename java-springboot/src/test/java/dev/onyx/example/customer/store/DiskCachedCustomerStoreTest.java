@@ -0,0 +1,130 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static dev.onyx.example.customer.TestCustomers.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskCachedCustomerStoreTest {
+
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicBoolean blockLookups = new AtomicBoolean();
+
+    // Reads the customer first and then blocks, so the lookup carries what Onyx held before a racing write.
+    private final InMemoryCustomerStore onyx = new InMemoryCustomerStore(0, 0, 0) {
+        @Override
+        public Customer findById(String customerId, String partition) {
+            Customer found = super.findById(customerId, partition);
+            pause();
+            return found;
+        }
+
+        @Override
+        public List<Customer> findByIds(Collection<String> customerIds, String partition) {
+            List<Customer> found = super.findByIds(customerIds, partition);
+            pause();
+            return found;
+        }
+
+        private void pause() {
+            if (blockLookups.getAndSet(false)) {
+                loaded.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    private DiskCachedCustomerStore store;
+
+    @AfterEach
+    void close() throws Exception {
+        release.countDown();
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void lookupsAreServedFromTheFileAfterARestart() throws Exception {
+        onyx.save(customer("c1", "US", 30));
+        store = open();
+        assertThat(store.findById("c1", "US").getAge()).isEqualTo(30);
+        store.close();
+
+        onyx.delete("c1", "US");
+        store = open();
+        assertThat(store.findById("c1", "US").getAge()).isEqualTo(30);
+        assertThat(store.getHitCount()).isEqualTo(1);
+        assertThat(store.getMissCount()).isZero();
+    }
+
+    @Test
+    void writesDropWhatTheyTouch() throws Exception {
+        store = open();
+        store.save(customer("c1", "US", 30));
+        assertThat(store.findById("c1", "US").getAge()).isEqualTo(30);
+
+        store.update("c1", "US", Map.of(CustomerField.AGE.getFieldName(), 31));
+        assertThat(store.findById("c1", "US").getAge()).isEqualTo(31);
+
+        store.delete("c1", "US");
+        assertThat(store.findById("c1", "US")).isNull();
+    }
+
+    @Test
+    void racingUpdateIsNotOverwrittenByAStaleLookup() throws Exception {
+        onyx.save(customer("c1", "US", 30));
+        store = open();
+        blockLookups.set(true);
+        Thread lookup = new Thread(() -> store.findById("c1", "US"));
+        lookup.start();
+        assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+
+        store.update("c1", "US", Map.of(CustomerField.AGE.getFieldName(), 31));
+        release.countDown();
+        lookup.join();
+
+        assertThat(store.findById("c1", "US").getAge()).isEqualTo(31);
+    }
+
+    @Test
+    void racingDeleteIsNotUndoneByAStaleBatchLookup() throws Exception {
+        onyx.save(customer("c1", "US", 30));
+        onyx.save(customer("c2", "US", 30));
+        store = open();
+        blockLookups.set(true);
+        Thread lookup = new Thread(() -> store.findByIds(List.of("c1", "c2"), "US"));
+        lookup.start();
+        assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+
+        store.delete("c1", "US");
+        release.countDown();
+        lookup.join();
+
+        assertThat(store.findById("c1", "US")).isNull();
+        assertThat(store.getSize()).isEqualTo(1);
+    }
+
+    private DiskCachedCustomerStore open() {
+        return new DiskCachedCustomerStore(onyx, dir.resolve("customers.log"), 64 * 1024, 60_000);
+    }
+}
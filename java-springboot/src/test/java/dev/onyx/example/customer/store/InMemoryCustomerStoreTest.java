@@ -0,0 +1,107 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static dev.onyx.example.customer.TestCustomers.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryCustomerStoreTest {
+
+    private static final List<CustomerQuery.Sort> BALANCE_DESC_AGE_ASC = List.of(
+            new CustomerQuery.Sort(CustomerField.BALANCE, true),
+            new CustomerQuery.Sort(CustomerField.AGE, false));
+
+    private final InMemoryCustomerStore store = new InMemoryCustomerStore(0, 0, 0);
+
+    @Test
+    void sortedPagesMatchTheFullSort() {
+        seed(1_000);
+
+        List<String> paged = pageThrough(CustomerQuery.inPartition("US").orderBy(BALANCE_DESC_AGE_ASC), 37);
+        List<String> all = ids(store.query(CustomerQuery.inPartition("US").orderBy(BALANCE_DESC_AGE_ASC).pageSize(5_000)));
+
+        assertThat(paged).hasSize(1_000);
+        assertThat(paged).isEqualTo(all);
+    }
+
+    @Test
+    void unsortedPagesFollowCustomerIds() {
+        seed(250);
+
+        List<String> paged = pageThrough(CustomerQuery.inPartition("US"), 40);
+
+        assertThat(paged).hasSize(250);
+        assertThat(paged).isEqualTo(paged.stream().sorted().toList());
+    }
+
+    @Test
+    void rowsWrittenBetweenPagesAreNeitherSkippedNorRepeated() {
+        for (int i = 0; i < 10; i++) {
+            store.save(customer(String.format("c%02d", i), "US", i, null));
+        }
+        CustomerQuery query = CustomerQuery.inPartition("US").orderBy(List.of(new CustomerQuery.Sort(CustomerField.AGE, false)));
+        CustomerQueryPage first = store.query(query.pageSize(5));
+        assertThat(ids(first)).containsExactly("c00", "c01", "c02", "c03", "c04");
+
+        // One row moves ahead of the cursor and a new one lands behind it.
+        store.update("c01", "US", Map.of(CustomerField.AGE.getFieldName(), 100));
+        store.save(customer("c10", "US", 7, null));
+        CustomerQueryPage second = store.query(CustomerQuery.inPartition("US").orderBy(query.getSort())
+                .pageSize(10).pageToken(first.nextPage()));
+
+        assertThat(ids(second)).containsExactly("c05", "c06", "c07", "c10", "c08", "c09", "c01");
+    }
+
+    @Test
+    void unreadableSortTokensAreRejected() {
+        seed(10);
+        CustomerQuery query = CustomerQuery.inPartition("US").orderBy(BALANCE_DESC_AGE_ASC);
+
+        assertThatThrownBy(() -> store.query(query.pageToken("#zz!"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.query(query.pageToken("#AA"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void filtersApplyBeforePaging() {
+        seed(100);
+
+        List<String> paged = pageThrough(CustomerQuery.inPartition("US").ageBetween(10, 19).orderBy(BALANCE_DESC_AGE_ASC), 3);
+
+        assertThat(paged).isEqualTo(ids(store.query(CustomerQuery.inPartition("US").ageBetween(10, 19)
+                .orderBy(BALANCE_DESC_AGE_ASC).pageSize(1_000))));
+        for (String customerId : paged) {
+            assertThat(store.findById(customerId, "US").getAge()).isGreaterThanOrEqualTo(10).isLessThanOrEqualTo(19);
+        }
+    }
+
+    private List<String> pageThrough(CustomerQuery query, int pageSize) {
+        List<String> ids = new ArrayList<>();
+        String pageToken = null;
+        do {
+            CustomerQueryPage page = store.query(query.pageSize(pageSize).pageToken(pageToken));
+            ids.addAll(ids(page));
+            pageToken = page.nextPage();
+        } while (pageToken != null);
+        return ids;
+    }
+
+    // Ages repeat and about half the balances are missing, so the id has to break most ties.
+    private void seed(int count) {
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            store.save(customer(String.format("c%04d", i), "US", random.nextInt(50),
+                    random.nextBoolean() ? null : (float) random.nextInt(20)));
+        }
+    }
+
+    private static List<String> ids(CustomerQueryPage page) {
+        return page.customers().stream().map(Customer::getCustomerId).toList();
+    }
+}
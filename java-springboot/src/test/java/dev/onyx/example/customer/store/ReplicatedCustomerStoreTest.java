@@ -0,0 +1,156 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static dev.onyx.example.customer.TestCustomers.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicatedCustomerStoreTest {
+
+    private final CountDownLatch scanning = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicBoolean blockScan = new AtomicBoolean();
+
+    // Reads its page first and then blocks, so the scan returns what Onyx held before any write made meanwhile.
+    private final InMemoryCustomerStore onyx = new InMemoryCustomerStore(0, 0, 0) {
+        @Override
+        public CustomerQueryPage query(CustomerQuery query) {
+            CustomerQueryPage page = super.query(query);
+            if (blockScan.getAndSet(false)) {
+                scanning.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return page;
+        }
+    };
+
+    private ReplicatedCustomerStore store;
+
+    @AfterEach
+    void close() throws Exception {
+        release.countDown();
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void readsAreServedFromTheCopyOnceLoaded() throws InterruptedException {
+        onyx.save(customer("c1", "US", 30));
+        store = new ReplicatedCustomerStore(onyx, List.of("US"), 60_000, 60_000, 10, 1);
+        awaitLoaded("US", 1);
+
+        assertThat(store.findById("c1", "US").getAge()).isEqualTo(30);
+        assertThat(store.findById("c1", "CA")).isNull();
+        assertThat(store.getLocalReadCount()).isEqualTo(1);
+        assertThat(store.getBypassedReadCount()).isZero();
+    }
+
+    @Test
+    void writesDuringAScanAreReplayedOntoTheNewCopy() throws InterruptedException {
+        onyx.save(customer("c1", "US", 30));
+        onyx.save(customer("c2", "US", 30));
+        blockScan.set(true);
+        store = new ReplicatedCustomerStore(onyx, List.of("US"), 60_000, 60_000, 10, 1);
+        assertThat(scanning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        store.save(customer("c1", "US", 31));
+        store.delete("c2", "US");
+        store.save(customer("c3", "US", 30));
+        store.update("c3", "US", Map.of(CustomerField.AGE.getFieldName(), 32));
+        release.countDown();
+        awaitLoaded("US", 2);
+
+        assertThat(store.findById("c1", "US").getAge()).isEqualTo(31);
+        assertThat(store.findById("c2", "US")).isNull();
+        assertThat(store.findById("c3", "US").getAge()).isEqualTo(32);
+        assertThat(store.getLocalReadCount()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentWritesToOneCustomerReachTheCopyInOrder() throws Exception {
+        onyx.save(customer("seed", "US", 0));
+        store = new ReplicatedCustomerStore(onyx, List.of("US"), 60_000, 60_000, 10, 1);
+        awaitLoaded("US", 1);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                int n = i;
+                writes.add(writers.submit(() -> {
+                    store.save(customer("c" + (n % 5), "US", n));
+                    if (n % 7 == 0) {
+                        store.delete("c" + (n % 5), "US");
+                    }
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        for (int i = 0; i < 5; i++) {
+            Customer local = store.findById("c" + i, "US");
+            Customer remote = onyx.findById("c" + i, "US");
+            assertThat(Objects.equals(local == null ? null : local.getAge(), remote == null ? null : remote.getAge()))
+                    .isTrue();
+        }
+        assertThat(store.getSize("US")).isEqualTo(onyx.size());
+    }
+
+    @Test
+    void movingACustomerReloadsItIntoTheTargetCopy() throws InterruptedException {
+        onyx.save(customer("c1", "US", 30));
+        onyx.save(customer("c2", "CA", 30));
+        store = new ReplicatedCustomerStore(onyx, List.of("US", "CA"), 60_000, 60_000, 10, 2);
+        awaitLoaded("US", 1);
+        awaitLoaded("CA", 1);
+
+        store.update("c1", "US", Map.of(CustomerField.COUNTRY_CODE.getFieldName(), "CA"));
+
+        assertThat(store.findById("c1", "US")).isNull();
+        assertThat(store.findById("c1", "CA").getAge()).isEqualTo(30);
+        assertThat(store.getSize("CA")).isEqualTo(2);
+        assertThat(store.getBypassedReadCount()).isZero();
+    }
+
+    @Test
+    void staleCopyIsBypassed() throws InterruptedException {
+        onyx.save(customer("c1", "US", 30));
+        store = new ReplicatedCustomerStore(onyx, List.of("US"), 60_000, 0, 10, 1);
+        awaitLoaded("US", 1);
+        Thread.sleep(5);
+
+        assertThat(store.findById("c1", "US")).isNotNull();
+        assertThat(store.getLocalReadCount()).isZero();
+        assertThat(store.getBypassedReadCount()).isEqualTo(1);
+    }
+
+    // Every test seeds its partitions, so a copy that is still empty has not been loaded yet.
+    private void awaitLoaded(String partition, int expectedSize) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.getSize(partition) != expectedSize && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(store.getSize(partition)).isEqualTo(expectedSize);
+    }
+}
@@ -0,0 +1,135 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientCustomerStoreTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    // "stuck" ignores interrupts until released, like a blocking client call; "slow" takes 300 ms; "bad" is the
+    // caller's mistake.
+    private final InMemoryCustomerStore onyx = new InMemoryCustomerStore(0, 0, 0) {
+        @Override
+        public Customer findById(String customerId, String partition) {
+            calls.incrementAndGet();
+            if ("stuck".equals(customerId)) {
+                boolean interrupted = false;
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            } else if ("bad".equals(customerId)) {
+                throw new IllegalArgumentException("bad id");
+            } else if ("slow".equals(customerId)) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new OnyxUnavailableException("Onyx is down");
+            }
+            return super.findById(customerId, partition);
+        }
+    };
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void retriesTransientFailures() {
+        ResilientCustomerStore store = new ResilientCustomerStore(onyx, policy(500, 3, 10));
+        failuresLeft.set(2);
+
+        assertThat(store.findById("c1", "US")).isNull();
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(store.getRetryCount()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotRetryCallerErrors() {
+        ResilientCustomerStore store = new ResilientCustomerStore(onyx, policy(500, 3, 10));
+
+        assertThatThrownBy(() -> store.findById("bad", "US")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(store.getRetryCount()).isZero();
+    }
+
+    @Test
+    void timeWaitingForAnAdmissionSlotDoesNotCount() throws Exception {
+        ConcurrencyLimitedCustomerStore limited = new ConcurrencyLimitedCustomerStore(onyx, 1, 5_000);
+        ResilientCustomerStore store = new ResilientCustomerStore(limited, policy(500, 1, 10));
+
+        Future<Customer> first = callers.submit(() -> store.findById("slow", "US"));
+        Future<Customer> second = callers.submit(() -> store.findById("slow", "US"));
+
+        // The second call waits about 300 ms for the slot and then runs for 300 ms; only the run is timed.
+        assertThat(first.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(store.getTimeoutCount()).isZero();
+    }
+
+    @Test
+    void stuckCallKeepsItsBudgetUntilItReturns() throws Exception {
+        ResilientCustomerStore store = new ResilientCustomerStore(onyx, policy(100, 2, 1));
+
+        assertThatThrownBy(() -> store.findById("stuck", "US")).isInstanceOf(OnyxUnavailableException.class);
+        assertThat(store.getTimeoutCount()).isEqualTo(1);
+        assertThat(store.getAbandonedCount()).isEqualTo(1);
+        assertThat(store.getBudgetExhaustedCount()).isEqualTo(1);
+        assertThat(store.getRetryCount()).isZero();
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.getAbandonedCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(store.getAbandonedCount()).isZero();
+        failuresLeft.set(1);
+        assertThat(store.findById("c1", "US")).isNull();
+        assertThat(store.getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void timeoutsAreKeptPerSizeBucket() {
+        ResilientCustomerStore store = new ResilientCustomerStore(onyx, policy(500, 1, 10));
+        for (int i = 0; i < 5; i++) {
+            store.findById("c1", "US");
+        }
+
+        assertThat(store.getTimeoutMs("findById", "1")).isLessThan(500);
+        assertThat(store.getTimeoutMs("findByIds", "1")).isEqualTo(500);
+        assertThat(store.getTimeoutMs("query", "1000+")).isEqualTo(500);
+    }
+
+    private static ResilientCustomerStore.Policy policy(long maxTimeoutMs, int maxAttempts, int retryBudgetMax) {
+        return new ResilientCustomerStore.Policy(
+                100, 5, 0.99, 2.0, 10, maxTimeoutMs, maxAttempts, 0, 0, 0.0, retryBudgetMax, false, 0.95, 0);
+    }
+}
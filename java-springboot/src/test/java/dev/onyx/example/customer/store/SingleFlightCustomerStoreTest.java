@@ -0,0 +1,170 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static dev.onyx.example.customer.TestCustomers.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightCustomerStoreTest {
+
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // Reads the customer first and then blocks, so a lookup carries what Onyx held before a racing write.
+    private final InMemoryCustomerStore onyx = new InMemoryCustomerStore(0, 0, 0) {
+        @Override
+        public Customer findById(String customerId, String partition) {
+            lookups.incrementAndGet();
+            Customer found = super.findById(customerId, partition);
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure.get() instanceof RuntimeException ex) {
+                throw ex;
+            }
+            if (failure.get() instanceof Error error) {
+                throw error;
+            }
+            return found;
+        }
+    };
+
+    private final SingleFlightCustomerStore store = new SingleFlightCustomerStore(onyx);
+
+    @Test
+    void concurrentLookupsOfOneCustomerShareACall() throws Exception {
+        onyx.save(customer("c1", "US"));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Customer>> results = new ArrayList<>();
+            results.add(callers.submit(() -> store.findById("c1", "US")));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> store.findById("c1", "US")));
+            }
+            awaitCoalesced(3);
+            release.countDown();
+
+            for (Future<Customer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getCustomerId()).isEqualTo("c1");
+            }
+            assertThat(lookups.get()).isEqualTo(1);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void followersSeeTheLeadersFailure() throws Exception {
+        failure.set(new OnyxUnavailableException("Onyx is down"));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Customer> leader = callers.submit(() -> store.findById("c1", "US"));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Customer> follower = callers.submit(() -> store.findById("c1", "US"));
+            awaitCoalesced(1);
+            release.countDown();
+
+            for (Future<Customer> result : List.of(leader, follower)) {
+                assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                        .hasCauseInstanceOf(OnyxUnavailableException.class);
+            }
+            assertThat(lookups.get()).isEqualTo(1);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void followersAreReleasedWhenTheLeaderFailsWithAnError() throws Exception {
+        failure.set(new StackOverflowError());
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Customer> leader = callers.submit(() -> store.findById("c1", "US"));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Customer> follower = callers.submit(() -> store.findById("c1", "US"));
+            awaitCoalesced(1);
+            release.countDown();
+
+            for (Future<Customer> result : List.of(leader, follower)) {
+                assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                        .hasCauseInstanceOf(StackOverflowError.class);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void lookupsAfterADeleteDoNotShareAReadFromBeforeIt() throws Exception {
+        onyx.save(customer("c1", "US"));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Customer> before = callers.submit(() -> store.findById("c1", "US"));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            store.delete("c1", "US");
+            Future<Customer> after = callers.submit(() -> store.findById("c1", "US"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lookups.get() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThat(before.get(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(after.get(5, TimeUnit.SECONDS)).isNull();
+            assertThat(lookups.get()).isEqualTo(2);
+            assertThat(store.getCoalescedCount()).isZero();
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void finishedLookupsAreNotReused() {
+        release.countDown();
+        onyx.save(customer("c1", "US"));
+
+        store.findById("c1", "US");
+        onyx.delete("c1", "US");
+
+        assertThat(store.findById("c1", "US")).isNull();
+        assertThat(lookups.get()).isEqualTo(2);
+        assertThat(store.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    void differentPartitionsAreLookedUpSeparately() {
+        release.countDown();
+        onyx.save(customer("c1", "US"));
+
+        assertThat(store.findById("c1", "US")).isNotNull();
+        assertThat(store.findById("c1", "CA")).isNull();
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.getCoalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(store.getCoalescedCount()).isEqualTo(expected);
+    }
+}
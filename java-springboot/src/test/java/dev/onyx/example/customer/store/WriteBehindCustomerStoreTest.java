@@ -0,0 +1,181 @@
+package dev.onyx.example.customer.store;
+
+import dev.onyx.example.customer.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static dev.onyx.example.customer.TestCustomers.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteBehindCustomerStoreTest {
+
+    private final CountDownLatch flushing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicBoolean blockWrites = new AtomicBoolean();
+    private final AtomicBoolean failWrites = new AtomicBoolean();
+    private final List<List<Customer>> batches = new ArrayList<>();
+
+    private final InMemoryCustomerStore onyx = new InMemoryCustomerStore(0, 0, 0) {
+        @Override
+        public void saveAll(List<Customer> customers) {
+            synchronized (batches) {
+                batches.add(List.copyOf(customers));
+            }
+            if (blockWrites.get()) {
+                flushing.countDown();
+                awaitQuietly(release);
+            }
+            if (failWrites.getAndSet(false)) {
+                throw new OnyxUnavailableException("Onyx is down");
+            }
+            super.saveAll(customers);
+        }
+    };
+
+    // A long interval keeps the background flusher out of the way; the tests flush by hand.
+    private final WriteBehindCustomerStore store = new WriteBehindCustomerStore(
+            onyx, 10, 100, 60_000, WriteBehindCustomerStore.FailurePolicy.RETRY, 3, false);
+
+    @AfterEach
+    void close() {
+        release.countDown();
+        store.close();
+    }
+
+    @Test
+    void readsSeeBufferedSaves() {
+        store.save(customer("c1", "US", 30));
+
+        assertThat(onyx.findById("c1", "US")).isNull();
+        assertThat(store.findById("c1", "US").getAge()).isEqualTo(30);
+        assertThat(store.findByIds(List.of("c1"), "US")).hasSize(1);
+        assertThat(store.getBuffered()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedSavesCoalesceIntoTheLatest() {
+        store.save(customer("c1", "US", 30));
+        store.save(customer("c1", "US", 31));
+        store.flush();
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(1);
+        assertThat(onyx.findById("c1", "US").getAge()).isEqualTo(31);
+        assertThat(store.getCoalescedCount()).isEqualTo(1);
+        assertThat(store.getWrittenCount()).isEqualTo(1);
+        assertThat(store.getBuffered()).isZero();
+    }
+
+    @Test
+    void readsSeeCustomersWhileTheirBatchIsBeingWritten() throws Exception {
+        store.save(customer("c1", "US", 30));
+        blockWrites.set(true);
+        Thread flush = start(store::flush);
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(store.getBuffered()).isZero();
+        assertThat(store.findById("c1", "US")).isNotNull();
+
+        release.countDown();
+        flush.join();
+    }
+
+    @Test
+    void deleteWaitsForTheBatchWritingTheCustomer() throws Exception {
+        store.save(customer("c1", "US", 30));
+        blockWrites.set(true);
+        Thread flush = start(store::flush);
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread delete = start(() -> store.delete("c1", "US"));
+        delete.join(200);
+        assertThat(delete.isAlive()).isTrue();
+
+        release.countDown();
+        flush.join();
+        delete.join();
+        assertThat(onyx.findById("c1", "US")).isNull();
+        assertThat(store.findById("c1", "US")).isNull();
+    }
+
+    @Test
+    void failedBatchIsNotRequeuedOverALaterDelete() throws Exception {
+        store.save(customer("c1", "US", 30));
+        blockWrites.set(true);
+        failWrites.set(true);
+        Thread flush = start(store::flush);
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread delete = start(() -> store.delete("c1", "US"));
+        delete.join(200);
+        assertThat(delete.isAlive()).isTrue();
+
+        release.countDown();
+        flush.join();
+        delete.join();
+        assertThat(store.getBuffered()).isZero();
+        store.flush();
+        assertThat(onyx.findById("c1", "US")).isNull();
+        assertThat(store.findById("c1", "US")).isNull();
+    }
+
+    @Test
+    void failedBatchIsRequeued() {
+        store.save(customer("c1", "US", 30));
+        failWrites.set(true);
+        store.flush();
+
+        assertThat(store.getBuffered()).isEqualTo(1);
+        store.flush();
+        assertThat(store.getBuffered()).isZero();
+        assertThat(onyx.findById("c1", "US").getAge()).isEqualTo(30);
+    }
+
+    @Test
+    void directSaveDropsTheOlderBufferedCopy() {
+        store.save(customer("c1", "US", 30));
+        store.saveAll(List.of(customer("c1", "US", 31)));
+        store.flush();
+
+        assertThat(store.getBuffered()).isZero();
+        assertThat(onyx.findById("c1", "US").getAge()).isEqualTo(31);
+    }
+
+    @Test
+    void updateWritesTheBufferedCopyFirst() {
+        store.save(customer("c1", "US", 30));
+
+        assertThat(store.update("c1", "US", Map.of(CustomerField.AGE.getFieldName(), 40))).isEqualTo(1);
+        assertThat(store.getBuffered()).isZero();
+        assertThat(onyx.findById("c1", "US").getAge()).isEqualTo(40);
+    }
+
+    @Test
+    void queriesSeeBufferedSaves() {
+        store.save(customer("c1", "US", 30));
+
+        assertThat(store.query(CustomerQuery.inPartition("US")).customers()).hasSize(1);
+        assertThat(store.getBuffered()).isZero();
+    }
+
+    private static Thread start(Runnable action) {
+        Thread thread = new Thread(action);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}